@@ -0,0 +1,77 @@
+package net.tropicraft.core.common.dimension.noise;
+
+import net.tropicraft.core.common.dimension.noise.generator.Billowed;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares sampling a chunk of volcano noise one point at a time against sampling it a row at a time
+ * with {@link NoiseModule#fill2d}. The noise is set up and sampled the same way VolcanoGenerator does.
+ * <p>
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BillowedBenchmark {
+	private static final int CHUNK_SIZE = 16;
+
+	private NoiseModule noise;
+	private double[] coords;
+	private double[] row;
+
+	@Setup
+	public void setup() {
+		noise = new Billowed(4291726L, 1, 1);
+		noise.amplitude = 0.45;
+
+		coords = new double[CHUNK_SIZE];
+		for (int n = 0; n < CHUNK_SIZE; n++) {
+			coords[n] = noiseCoord(n - 40);
+		}
+		row = new double[CHUNK_SIZE];
+	}
+
+	@Benchmark
+	public void perPoint(Blackhole blackhole) {
+		for (int x = 0; x < CHUNK_SIZE; x++) {
+			for (int z = 0; z < CHUNK_SIZE; z++) {
+				blackhole.consume(noise.getNoise(coords[x], coords[z]));
+			}
+		}
+	}
+
+	@Benchmark
+	public void fill2d(Blackhole blackhole) {
+		for (int x = 0; x < CHUNK_SIZE; x++) {
+			noise.fill2d(row, coords[x], coords);
+			blackhole.consume(row);
+		}
+	}
+
+	@Benchmark
+	public NoiseModule create() {
+		// What it costs to build the noise for a volcano, which is done once per volcano placement
+		NoiseModule created = new Billowed(4291726L, 1, 1);
+		created.amplitude = 0.45;
+		return created;
+	}
+
+	private static double noiseCoord(float relative) {
+		return relative * 0.21 + 0.01;
+	}
+}
@@ -6,4 +6,13 @@ public class TropicsConfigs {
     public static int tropicsDimensionID = -127;
     public static boolean allowVolcanoEruption = false;
 
+    // Portal destinations are shared by every entity in the same cell of 2^shift blocks
+    public static int portalCacheCellShift = 4;
+    public static int portalCacheMaxEntries = 1024;
+    public static int portalCacheTtlTicks = 300;
+
+    // Per world tick limits for the Koa searches queued in KoaWorkScheduler
+    public static int koaWorkBudgetMicros = 1000;
+    public static int koaWorkMaxJobsPerTick = 16;
+
 }
@@ -167,7 +167,7 @@ public class Util {
             tryX = Mth.floor(entity.getX()) + (entity.level.random.nextInt(scanSize)-scanSize/2);
             int i = tryY + entity.level.random.nextInt(scanSizeY)-(scanSizeY/2);
             tryZ = Mth.floor(entity.getZ()) + entity.level.random.nextInt(scanSize)-scanSize/2;
-            BlockPos posTry = new BlockPos(tryX, tryY, tryZ);
+            BlockPos.MutableBlockPos posTry = new BlockPos.MutableBlockPos(tryX, tryY, tryZ);
 
             boolean foundBlock = false;
             int newY = i;
@@ -177,7 +177,7 @@ public class Util {
                 int tryMax = adjustRangeY;
                 while (!entity.level.isEmptyBlock(posTry) && tryMax-- > 0) {
                     newY++;
-                    posTry = new BlockPos(tryX, newY, tryZ);
+                    posTry.setY(newY);
                 }
 
                 //if found air and water below it
@@ -193,7 +193,7 @@ public class Util {
                 int tryMax = adjustRangeY;
                 while (entity.level.isEmptyBlock(posTry) && tryMax-- > 0) {
                     newY--;
-                    posTry = new BlockPos(tryX, newY, tryZ);
+                    posTry.setY(newY);
                 }
                 /*if (!entity.world.isAirBlock(posTry) && entity.world.getBlockState(posTry.add(0, 1, 0)).getMaterial().isLiquid()) {
                     foundWater = true;
@@ -204,7 +204,7 @@ public class Util {
             }
 
             if (foundBlock) {
-                return posTry;
+                return posTry.immutable();
             }
         }
 
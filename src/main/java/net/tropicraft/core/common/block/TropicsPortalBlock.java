@@ -0,0 +1,36 @@
+package net.tropicraft.core.common.block;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.LiquidBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.Fluids;
+import net.tropicraft.core.common.dimension.TropicsPortalIndex;
+
+/**
+ * The still water filling a tropics portal. Keeps the {@link TropicsPortalIndex} of its dimension in
+ * sync as portals are built and broken.
+ */
+public class TropicsPortalBlock extends LiquidBlock {
+
+    public TropicsPortalBlock(Properties builder) {
+        super(() -> Fluids.WATER, builder);
+    }
+
+    @Override
+    public void onPlace(BlockState state, Level level, BlockPos pos, BlockState oldState, boolean isMoving) {
+        super.onPlace(state, level, pos, oldState, isMoving);
+        if (level instanceof ServerLevel serverLevel && !oldState.is(this)) {
+            TropicsPortalIndex.get(serverLevel).add(pos);
+        }
+    }
+
+    @Override
+    public void onRemove(BlockState state, Level level, BlockPos pos, BlockState newState, boolean isMoving) {
+        super.onRemove(state, level, pos, newState, isMoving);
+        if (level instanceof ServerLevel serverLevel && !newState.is(this)) {
+            TropicsPortalIndex.get(serverLevel).remove(pos);
+        }
+    }
+}
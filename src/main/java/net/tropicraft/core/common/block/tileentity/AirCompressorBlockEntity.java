@@ -12,16 +12,15 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.network.PacketDistributor;
 import net.tropicraft.core.common.block.AirCompressorBlock;
 import net.tropicraft.core.common.item.scuba.ScubaArmorItem;
-import net.tropicraft.core.common.network.TropicraftPackets;
-import net.tropicraft.core.common.network.message.MessageAirCompressorInventory;
+import net.tropicraft.core.common.network.BlockEntitySync;
+import net.tropicraft.core.common.network.MachineSyncState;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
-public class AirCompressorBlockEntity extends BlockEntity implements IMachineBlock {
+public class AirCompressorBlockEntity extends BlockEntity implements IMachineBlock, ISyncedMachine {
 
     /** Is the compressor currently giving air */
     private boolean compressing;
@@ -38,6 +37,9 @@ public class AirCompressorBlockEntity extends BlockEntity implements IMachineBlo
 
     private ScubaArmorItem tank;
 
+    /** Synced slot is the tank, and fields are whether it's compressing and for how long */
+    private final MachineSyncState syncState = new MachineSyncState(1, 2, 1 << 1);
+
     public AirCompressorBlockEntity(final BlockPos pos, final BlockState state) {
         super(TropicraftBlockEntityTypes.AIR_COMPRESSOR.get(), pos, state);
         this.stack = ItemStack.EMPTY;
@@ -190,8 +192,37 @@ public class AirCompressorBlockEntity extends BlockEntity implements IMachineBlo
     }
 
     protected void syncInventory() {
-        if (!level.isClientSide) {
-            TropicraftPackets.INSTANCE.send(PacketDistributor.DIMENSION.with(level::dimension), new MessageAirCompressorInventory(this));
+        BlockEntitySync.markChanged(this);
+    }
+
+    /* == ISyncedMachine == */
+
+    @Override
+    public MachineSyncState getSyncState() {
+        return syncState;
+    }
+
+    @Override
+    public ItemStack getSyncedSlot(int slot) {
+        return stack;
+    }
+
+    @Override
+    public void setSyncedSlot(int slot, ItemStack stack) {
+        setTank(stack);
+    }
+
+    @Override
+    public int getSyncedField(int field) {
+        return field == 0 ? (compressing ? 1 : 0) : ticks;
+    }
+
+    @Override
+    public void setSyncedField(int field, int value) {
+        if (field == 0) {
+            compressing = value != 0;
+        } else {
+            ticks = value;
         }
     }
 
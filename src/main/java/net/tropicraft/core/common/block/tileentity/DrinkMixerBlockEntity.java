@@ -18,9 +18,8 @@ import net.tropicraft.core.common.drinks.Drinks;
 import net.tropicraft.core.common.drinks.Ingredient;
 import net.tropicraft.core.common.drinks.MixerRecipes;
 import net.tropicraft.core.common.item.CocktailItem;
-import net.tropicraft.core.common.network.TropicraftPackets;
-import net.tropicraft.core.common.network.message.MessageMixerInventory;
-import net.tropicraft.core.common.network.message.MessageMixerStart;
+import net.tropicraft.core.common.network.BlockEntitySync;
+import net.tropicraft.core.common.network.MachineSyncState;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -28,7 +27,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-public class DrinkMixerBlockEntity extends BlockEntity implements IMachineBlock {
+public class DrinkMixerBlockEntity extends BlockEntity implements IMachineBlock, ISyncedMachine {
     /** Number of ticks to mix */
     private static final int TICKS_TO_MIX = 4*20;
     private static final int MAX_NUM_INGREDIENTS = 3;
@@ -39,6 +38,9 @@ public class DrinkMixerBlockEntity extends BlockEntity implements IMachineBlock
     private boolean mixing;
     public ItemStack result = ItemStack.EMPTY;
 
+    /** Synced slots are the ingredients followed by the result, and fields are whether it's mixing and for how long */
+    private final MachineSyncState syncState = new MachineSyncState(MAX_NUM_INGREDIENTS + 1, 2, 1 << 1);
+
     public DrinkMixerBlockEntity(final BlockPos pos, final BlockState state) {
         super(TropicraftBlockEntityTypes.DRINK_MIXER.get(), pos, state);
         mixing = false;
@@ -119,9 +121,7 @@ public class DrinkMixerBlockEntity extends BlockEntity implements IMachineBlock
     public void startMixing() {
         this.ticks = 0;
         this.mixing = true;
-        if (!level.isClientSide) {
-            TropicraftPackets.sendToDimension(new MessageMixerStart(this), level);
-        }
+        BlockEntitySync.markChanged(this);
     }
 
     private void dropItem(@Nonnull ItemStack stack, @Nullable Player at) {
@@ -278,8 +278,41 @@ public class DrinkMixerBlockEntity extends BlockEntity implements IMachineBlock
     }
 
     protected void syncInventory() {
-        if (!level.isClientSide) {
-            TropicraftPackets.sendToDimension(new MessageMixerInventory(this), level);
+        BlockEntitySync.markChanged(this);
+    }
+
+    /* == ISyncedMachine == */
+
+    @Override
+    public MachineSyncState getSyncState() {
+        return syncState;
+    }
+
+    @Override
+    public ItemStack getSyncedSlot(int slot) {
+        return slot < MAX_NUM_INGREDIENTS ? ingredients.get(slot) : result;
+    }
+
+    @Override
+    public void setSyncedSlot(int slot, ItemStack stack) {
+        if (slot < MAX_NUM_INGREDIENTS) {
+            ingredients.set(slot, stack);
+        } else {
+            result = stack;
+        }
+    }
+
+    @Override
+    public int getSyncedField(int field) {
+        return field == 0 ? (mixing ? 1 : 0) : ticks;
+    }
+
+    @Override
+    public void setSyncedField(int field, int value) {
+        if (field == 0) {
+            mixing = value != 0;
+        } else {
+            ticks = value;
         }
     }
 
@@ -0,0 +1,26 @@
+package net.tropicraft.core.common.block.tileentity;
+
+import net.minecraft.world.item.ItemStack;
+import net.tropicraft.core.common.network.MachineSyncState;
+
+/**
+ * A machine whose items and progress are kept in step with clients by
+ * {@link net.tropicraft.core.common.network.BlockEntitySync}, which only sends the slots and fields that
+ * changed since the machine was last synced.
+ */
+public interface ISyncedMachine {
+
+    /**
+     * @return What was last sent to clients for this machine, along with how many slots and fields it has
+     */
+    MachineSyncState getSyncState();
+
+    ItemStack getSyncedSlot(int slot);
+
+    void setSyncedSlot(int slot, ItemStack stack);
+
+    int getSyncedField(int field);
+
+    void setSyncedField(int field, int value);
+
+}
@@ -16,15 +16,14 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.tropicraft.Constants;
 import net.tropicraft.core.common.TropicraftTags;
 import net.tropicraft.core.common.item.TropicraftItems;
-import net.tropicraft.core.common.network.TropicraftPackets;
-import net.tropicraft.core.common.network.message.MessageSifterInventory;
-import net.tropicraft.core.common.network.message.MessageSifterStart;
+import net.tropicraft.core.common.network.BlockEntitySync;
+import net.tropicraft.core.common.network.MachineSyncState;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.Random;
 
-public class SifterBlockEntity extends BlockEntity {
+public class SifterBlockEntity extends BlockEntity implements ISyncedMachine {
 
     /** Number of seconds to sift multiplied by the number of ticks per second */
     private static final int SIFT_TIME = 4 * 20;
@@ -43,6 +42,9 @@ public class SifterBlockEntity extends BlockEntity {
     @Nonnull
     private ItemStack siftItem = ItemStack.EMPTY;
 
+    /** Synced slot is the item being sifted, and fields are whether it's sifting and how long it has left */
+    private final MachineSyncState syncState = new MachineSyncState(1, 2, 1 << 1);
+
     public SifterBlockEntity(final BlockPos pos, final BlockState state) {
         super(TropicraftBlockEntityTypes.SIFTER.get(), pos, state);
         rand = new Random();
@@ -165,9 +167,7 @@ public class SifterBlockEntity extends BlockEntity {
         isSifting = true;
         currentSiftTime = SIFT_TIME;
 
-        if (!level.isClientSide) {
-            TropicraftPackets.sendToDimension(new MessageSifterStart(this), level);
-        }
+        BlockEntitySync.markChanged(this);
     }
 
     private void stopSifting() {
@@ -226,8 +226,37 @@ public class SifterBlockEntity extends BlockEntity {
     }
 
     protected void syncInventory() {
-        if (!level.isClientSide()) {
-            TropicraftPackets.sendToDimension(new MessageSifterInventory(this), level);
+        BlockEntitySync.markChanged(this);
+    }
+
+    /* == ISyncedMachine == */
+
+    @Override
+    public MachineSyncState getSyncState() {
+        return syncState;
+    }
+
+    @Override
+    public ItemStack getSyncedSlot(int slot) {
+        return siftItem;
+    }
+
+    @Override
+    public void setSyncedSlot(int slot, ItemStack stack) {
+        setSiftItem(stack);
+    }
+
+    @Override
+    public int getSyncedField(int field) {
+        return field == 0 ? (isSifting ? 1 : 0) : currentSiftTime;
+    }
+
+    @Override
+    public void setSyncedField(int field, int value) {
+        if (field == 0) {
+            isSifting = value != 0;
+        } else {
+            currentSiftTime = value;
         }
     }
 
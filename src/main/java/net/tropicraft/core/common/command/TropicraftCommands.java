@@ -4,9 +4,17 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.network.chat.TextComponent;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraftforge.fml.loading.FMLEnvironment;
 import net.tropicraft.core.common.command.debug.MapBiomesCommand;
+import net.tropicraft.core.common.dimension.PortalDestinationCache;
 import net.tropicraft.core.common.dimension.TropicraftDimension;
+import net.tropicraft.core.common.dimension.TropicsPortalPlacement;
+import net.tropicraft.core.common.dimension.biome.QuartBiomeCache;
+import net.tropicraft.core.common.entity.passive.EntityKoaBase;
+import net.tropicraft.core.common.entity.passive.koa.KoaWorkScheduler;
+import net.tropicraft.core.common.network.BlockEntitySync;
 
 import static net.minecraft.commands.Commands.literal;
 
@@ -28,6 +36,22 @@ public final class TropicraftCommands {
                             .requires(s -> s.hasPermission(2))
                             .executes(c -> teleportWithPortal(c.getSource()))
                     )
+                    .then(literal("portal_stats")
+                            .requires(s -> s.hasPermission(2))
+                            .executes(c -> portalStats(c.getSource()))
+                    )
+                    .then(literal("koa_ai")
+                            .requires(s -> s.hasPermission(2))
+                            .executes(c -> koaAiStats(c.getSource()))
+                    )
+                    .then(literal("block_entity_sync")
+                            .requires(s -> s.hasPermission(2))
+                            .executes(c -> blockEntitySyncStats(c.getSource()))
+                    )
+                    .then(literal("biome_cache")
+                            .requires(s -> s.hasPermission(2))
+                            .executes(c -> biomeCacheStats(c.getSource()))
+                    )
             );
         }
     }
@@ -41,4 +65,35 @@ public final class TropicraftCommands {
         TropicraftDimension.teleportPlayerWithPortal(source.getPlayerOrException(), TropicraftDimension.WORLD);
         return Command.SINGLE_SUCCESS;
     }
+
+    private static int portalStats(final CommandSourceStack source) {
+        source.sendSuccess(new TextComponent(TropicsPortalPlacement.describeMetrics()), false);
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            PortalDestinationCache cache = PortalDestinationCache.get(level);
+            source.sendSuccess(new TextComponent(level.dimension().location() + ": " + cache.size() + " cached portal destinations, " + cache.getHits() + " hits, " + cache.getMisses() + " misses"), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int koaAiStats(final CommandSourceStack source) {
+        source.sendSuccess(new TextComponent(EntityKoaBase.getGoalSetsBuilt() + " Koa goal sets built, " + EntityKoaBase.getGoalsSwapped() + " goals swapped"), false);
+        for (ServerLevel level : source.getServer().getAllLevels()) {
+            KoaWorkScheduler scheduler = KoaWorkScheduler.get(level);
+            source.sendSuccess(new TextComponent(level.dimension().location() + ": " + scheduler.getQueueDepth() + " queued Koa jobs (max " + scheduler.getMaxQueueDepth() + "), "
+                    + scheduler.getExecutedCount() + " run, " + scheduler.getDeferredCount() + " deferred"), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int blockEntitySyncStats(final CommandSourceStack source) {
+        for (String line : BlockEntitySync.describeMetrics()) {
+            source.sendSuccess(new TextComponent(line), false);
+        }
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int biomeCacheStats(final CommandSourceStack source) {
+        source.sendSuccess(new TextComponent("Biome cache: " + QuartBiomeCache.getHits() + " hits, " + QuartBiomeCache.getMisses() + " misses"), false);
+        return Command.SINGLE_SUCCESS;
+    }
 }
@@ -1,30 +1,63 @@
 package net.tropicraft.core.common.command.debug;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.core.QuartPos;
 import net.minecraft.core.Registry;
 import net.minecraft.network.chat.TextComponent;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.BiomeSource;
+import net.minecraft.world.level.biome.Climate;
+import net.minecraft.world.level.chunk.ChunkGenerator;
 import net.tropicraft.core.common.dimension.TropicraftDimension;
+import net.tropicraft.core.common.dimension.biome.QuartBiomeCache;
 import net.tropicraft.core.common.dimension.biome.TropicraftBiomes;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static net.minecraft.commands.Commands.argument;
 import static net.minecraft.commands.Commands.literal;
 
+/**
+ * Renders the biomes around the origin of the tropics into a grid of PNG tiles under {@code biome_map/}.
+ * <p>
+ * Rendering happens on a fork/join pool so the server keeps ticking, and each tile is written out as
+ * soon as it is done. Progress is reported back to the command source as tiles complete.
+ */
 public class MapBiomesCommand {
-    private static final int SIZE = 4096;
-    private static final int SIZE2 = SIZE / 2;
-    private static final int SIZE8 = SIZE / 8;
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    // The old single image covered 4096 quarts in each direction
+    private static final int DEFAULT_RADIUS = 8192;
+    private static final int DEFAULT_SCALE = 4;
+    // Keeps the image size and the tile count well within an int, at any scale
+    private static final int MAX_RADIUS = 1 << 20;
+    private static final int TILE_SIZE = 512;
+    private static final Path OUTPUT = Paths.get("biome_map");
+
     private static final Object2IntOpenHashMap<ResourceLocation> COLORS = new Object2IntOpenHashMap<>();
 
+    private static final AtomicBoolean RUNNING = new AtomicBoolean();
+    private static ForkJoinPool pool;
+
     static {
         COLORS.put(TropicraftBiomes.TROPICS.getId(), 0x7cde73);
 
@@ -46,44 +79,140 @@ public class MapBiomesCommand {
         dispatcher.register(
                 literal("mapbiomes")
                         .requires(s -> s.hasPermission(2))
-                        .executes(c -> execute(c.getSource()))
+                        .executes(c -> execute(c.getSource(), DEFAULT_RADIUS, DEFAULT_SCALE))
+                        .then(argument("radius", IntegerArgumentType.integer(1, MAX_RADIUS))
+                                .executes(c -> execute(c.getSource(), IntegerArgumentType.getInteger(c, "radius"), DEFAULT_SCALE))
+                                .then(argument("scale", IntegerArgumentType.integer(1))
+                                        .executes(c -> execute(c.getSource(), IntegerArgumentType.getInteger(c, "radius"), IntegerArgumentType.getInteger(c, "scale")))
+                                )
+                        )
         );
     }
 
-    private static int execute(CommandSourceStack source) {
+    /**
+     * @param radius Distance in blocks from the origin to map in each direction
+     * @param scale Number of blocks covered by each pixel
+     */
+    private static int execute(CommandSourceStack source, int radius, int scale) {
         if (!source.getLevel().dimension().equals(TropicraftDimension.WORLD)) {
             source.sendFailure(new TextComponent("Can't execute this in non-tropicraft world!"));
+            return 0;
         }
 
-        BufferedImage img = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB);
-
         Optional<? extends Registry<Biome>> biomes = source.getLevel().registryAccess().registry(Registry.BIOME_REGISTRY);
-        if (biomes.isPresent()) {
-            for (int x = -SIZE2; x < SIZE2; x++) {
-                if (x % SIZE8 == 0) {
-                    source.sendSuccess(new TextComponent(((x + SIZE2) / (double) SIZE) * 100 + "%"), false);
-                }
+        if (biomes.isEmpty()) {
+            source.sendFailure(new TextComponent("Biomes Registry was null!"));
+            return 0;
+        }
 
-                for (int z = -SIZE2; z < SIZE2; z++) {
-                    Biome biome = source.getLevel().getUncachedNoiseBiome(x, 0, z).value();
-                    ResourceLocation name = biomes.get().getKey(biome);
+        if (!RUNNING.compareAndSet(false, true)) {
+            source.sendFailure(new TextComponent("A biome map is already being rendered!"));
+            return 0;
+        }
+
+        ChunkGenerator generator = source.getLevel().getChunkSource().getGenerator();
+        int size = Math.max(1, 2 * radius / scale);
+        int tiles = (size + TILE_SIZE - 1) / TILE_SIZE;
+        long hits = QuartBiomeCache.getHits();
+        long misses = QuartBiomeCache.getMisses();
+        RenderJob job = new RenderJob(source, biomes.get(), generator.getBiomeSource(), generator.climateSampler(), -radius, scale, size, tiles);
+
+        source.sendSuccess(new TextComponent("Mapping " + size + "x" + size + " biome samples into " + tiles * tiles + " tiles..."), false);
+
+        CompletableFuture.runAsync(() -> new RenderTiles(job, 0, 0, tiles, tiles).invoke(), getPool())
+                .whenCompleteAsync((v, throwable) -> {
+                    RUNNING.set(false);
+                    if (throwable != null) {
+                        LOGGER.error("Failed to map biome colors", throwable);
+                        source.sendFailure(new TextComponent("Something went wrong, check the log!"));
+                    } else {
+                        source.sendSuccess(new TextComponent("Mapped biome colors to " + OUTPUT.toAbsolutePath()), false);
+                        // Includes any other lookups made while the map was rendering, such as from chunk generation
+                        source.sendSuccess(new TextComponent("Biome cache while mapping: " + (QuartBiomeCache.getHits() - hits) + " hits, " + (QuartBiomeCache.getMisses() - misses) + " misses"), false);
+                    }
+                }, source.getServer());
+
+        return tiles * tiles;
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        }
+        return pool;
+    }
 
-                    img.setRGB(x + SIZE2, z + SIZE2, COLORS.getOrDefault(name, 0xFFFFFF));
+    private record RenderJob(CommandSourceStack source, Registry<Biome> biomes, BiomeSource biomeSource, Climate.Sampler sampler,
+                             int origin, int scale, int size, int tiles, AtomicInteger completed) {
+        RenderJob(CommandSourceStack source, Registry<Biome> biomes, BiomeSource biomeSource, Climate.Sampler sampler, int origin, int scale, int size, int tiles) {
+            this(source, biomes, biomeSource, sampler, origin, scale, size, tiles, new AtomicInteger());
+        }
+
+        void renderTile(int tileX, int tileZ) {
+            int width = Math.min(TILE_SIZE, size - tileX * TILE_SIZE);
+            int height = Math.min(TILE_SIZE, size - tileZ * TILE_SIZE);
+            BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+            for (int px = 0; px < width; px++) {
+                int quartX = QuartPos.fromBlock(origin + (tileX * TILE_SIZE + px) * scale);
+                for (int pz = 0; pz < height; pz++) {
+                    int quartZ = QuartPos.fromBlock(origin + (tileZ * TILE_SIZE + pz) * scale);
+                    Biome biome = biomeSource.getNoiseBiome(quartX, 0, quartZ, sampler).value();
+                    img.setRGB(px, pz, COLORS.getOrDefault(biomes.getKey(biome), 0xFFFFFF));
                 }
             }
-        } else {
-            source.sendFailure(new TextComponent("Biomes Registry was null!"));
+
+            try {
+                Files.createDirectories(OUTPUT);
+                ImageIO.write(img, "png", OUTPUT.resolve("tile_" + tileX + "_" + tileZ + ".png").toAbsolutePath().toFile());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            reportProgress(completed.incrementAndGet());
         }
 
-        Path p = Paths.get("biome_colors.png");
-        try {
-            ImageIO.write(img, "png", p.toAbsolutePath().toFile());
-            source.sendSuccess(new TextComponent("Mapped biome colors!"), false);
-        } catch (IOException e) {
-            source.sendFailure(new TextComponent("Something went wrong, check the log!"));
-            e.printStackTrace();
+        private void reportProgress(int done) {
+            int total = tiles * tiles;
+            int percent = done * 100 / total;
+            if (percent / 10 != (done - 1) * 100 / total / 10) {
+                MinecraftServer server = source.getServer();
+                server.execute(() -> source.sendSuccess(new TextComponent(percent + "%"), false));
+            }
+        }
+    }
+
+    /**
+     * Splits a rectangle of tiles in half along its longest side until single tiles are left.
+     */
+    private static final class RenderTiles extends RecursiveAction {
+        private final RenderJob job;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+
+        RenderTiles(RenderJob job, int minX, int minZ, int maxX, int maxZ) {
+            this.job = job;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
         }
 
-        return 0;
+        @Override
+        protected void compute() {
+            int width = maxX - minX;
+            int height = maxZ - minZ;
+            if (width == 1 && height == 1) {
+                job.renderTile(minX, minZ);
+            } else if (width >= height) {
+                int mid = minX + width / 2;
+                invokeAll(new RenderTiles(job, minX, minZ, mid, maxZ), new RenderTiles(job, mid, minZ, maxX, maxZ));
+            } else {
+                int mid = minZ + height / 2;
+                invokeAll(new RenderTiles(job, minX, minZ, maxX, mid), new RenderTiles(job, minX, mid, maxX, maxZ));
+            }
+        }
     }
 }
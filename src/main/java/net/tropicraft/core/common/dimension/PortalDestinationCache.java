@@ -0,0 +1,188 @@
+package net.tropicraft.core.common.dimension;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.TropicsConfigs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Remembers which portal entities arriving in a dimension were sent to, so repeat trips from the same
+ * area skip the portal index. Entries are shared by every entity within a cell of
+ * {@link TropicsConfigs#portalCacheCellShift} blocks, and are evicted least recently used first once
+ * the cache is full or after {@link TropicsConfigs#portalCacheTtlTicks} ticks without use.
+ * <p>
+ * Every cached portal holds a portal ticket so its chunk stays loaded for the next trip. The ticket
+ * is removed as soon as no entry points to the portal anymore.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class PortalDestinationCache {
+    private static final Logger LOGGER = LogManager.getLogger("tropics portal");
+
+    private static final Map<ResourceKey<Level>, PortalDestinationCache> CACHES = new HashMap<>();
+
+    private static final int PRUNE_INTERVAL = 100;
+    private static final int TICKET_DISTANCE = 3;
+
+    private final ServerLevel level;
+    private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+    private final Long2IntMap portalReferences = new Long2IntOpenHashMap();
+
+    private long hits;
+    private long misses;
+
+    private PortalDestinationCache(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static PortalDestinationCache get(ServerLevel level) {
+        return CACHES.computeIfAbsent(level.dimension(), k -> new PortalDestinationCache(level));
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || !(event.world instanceof ServerLevel level)) {
+            return;
+        }
+
+        long gameTime = level.getGameTime();
+        if (gameTime % PRUNE_INTERVAL == 0L) {
+            PortalDestinationCache cache = CACHES.get(level.dimension());
+            if (cache != null) {
+                cache.prune(gameTime);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            CACHES.remove(level.dimension());
+        }
+    }
+
+    /**
+     * @return The portal last sent to from the cell containing the given position, or null if there is
+     * no live entry or the portal has since been destroyed
+     */
+    @Nullable
+    public BlockPos get(BlockPos origin) {
+        long key = cellKey(origin);
+        Entry entry = entries.getAndMoveToLast(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+
+        if (!TropicsPortalIndex.get(level).contains(entry.portal)) {
+            removeEntry(key, entry);
+            misses++;
+            return null;
+        }
+
+        hits++;
+        entry.lastUsed = level.getGameTime();
+        addTicket(entry.portal);
+        return entry.portal;
+    }
+
+    public void put(BlockPos origin, BlockPos portal) {
+        long key = cellKey(origin);
+        Entry previous = entries.remove(key);
+        if (previous != null) {
+            release(previous.portal);
+        }
+
+        while (entries.size() >= TropicsConfigs.portalCacheMaxEntries && !entries.isEmpty()) {
+            long eldest = entries.firstLongKey();
+            release(entries.removeFirst().portal);
+            LOGGER.debug("Evicted tropics portal destination for cell {} in {}", new ChunkPos(eldest), level.dimension().location());
+        }
+
+        BlockPos immutablePortal = portal.immutable();
+        entries.putAndMoveToLast(key, new Entry(immutablePortal, level.getGameTime()));
+        portalReferences.mergeInt(immutablePortal.asLong(), 1, Integer::sum);
+        addTicket(immutablePortal);
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void prune(long gameTime) {
+        long expiredBefore = gameTime - TropicsConfigs.portalCacheTtlTicks;
+
+        // Entries are kept in order of use, so the expired ones are all at the front
+        ObjectIterator<Long2ObjectMap.Entry<Entry>> iterator = entries.long2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Long2ObjectMap.Entry<Entry> entry = iterator.next();
+            if (entry.getValue().lastUsed >= expiredBefore) {
+                break;
+            }
+            iterator.remove();
+            release(entry.getValue().portal);
+            LOGGER.debug("Removing tropics portal destination for cell {} in {}", new ChunkPos(entry.getLongKey()), level.dimension().location());
+        }
+    }
+
+    private void removeEntry(long key, Entry entry) {
+        entries.remove(key);
+        release(entry.portal);
+    }
+
+    private void release(BlockPos portal) {
+        long key = portal.asLong();
+        int references = portalReferences.get(key) - 1;
+        if (references > 0) {
+            portalReferences.put(key, references);
+        } else {
+            portalReferences.remove(key);
+            level.getChunkSource().removeRegionTicket(TicketType.PORTAL, new ChunkPos(portal), TICKET_DISTANCE, portal);
+        }
+    }
+
+    private void addTicket(BlockPos portal) {
+        level.getChunkSource().addRegionTicket(TicketType.PORTAL, new ChunkPos(portal), TICKET_DISTANCE, portal);
+    }
+
+    private static long cellKey(BlockPos pos) {
+        int shift = TropicsConfigs.portalCacheCellShift;
+        return ChunkPos.asLong(pos.getX() >> shift, pos.getZ() >> shift);
+    }
+
+    private static final class Entry {
+        final BlockPos portal;
+        long lastUsed;
+
+        Entry(BlockPos portal, long lastUsed) {
+            this.portal = portal;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
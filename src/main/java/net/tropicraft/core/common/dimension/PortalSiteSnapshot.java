@@ -0,0 +1,87 @@
+package net.tropicraft.core.common.dimension;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.LevelHeightAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.levelgen.Heightmap;
+
+/**
+ * A read-only copy of the chunk sections and surface heights that a portal site search reads. It is
+ * captured on the server thread so that the search itself can safely run on a worker thread while
+ * the world keeps ticking.
+ * <p>
+ * Positions outside of what was captured read as air.
+ */
+public final class PortalSiteSnapshot {
+    private final int minBuildHeight;
+    private final int maxBuildHeight;
+    private final Long2ObjectMap<ChunkSnapshot> chunks = new Long2ObjectOpenHashMap<>();
+
+    public PortalSiteSnapshot(LevelHeightAccessor level) {
+        this.minBuildHeight = level.getMinBuildHeight();
+        this.maxBuildHeight = level.getMaxBuildHeight();
+    }
+
+    /**
+     * Copies the sections of the given chunk that overlap the inclusive y range, along with its
+     * surface heightmap. Must be called on the server thread.
+     */
+    public void capture(ChunkAccess chunk, int minY, int maxY) {
+        ChunkSnapshot snapshot = chunks.computeIfAbsent(chunk.getPos().toLong(), k -> new ChunkSnapshot(chunk));
+
+        int minSection = chunk.getSectionIndex(Math.max(minY, minBuildHeight));
+        int maxSection = chunk.getSectionIndex(Math.min(maxY, maxBuildHeight - 1));
+        for (int i = minSection; i <= maxSection; i++) {
+            if (snapshot.sections[i] == null) {
+                LevelChunkSection section = chunk.getSection(i);
+                snapshot.sections[i] = section.hasOnlyAir() ? null : section.getStates().copy();
+            }
+        }
+    }
+
+    public BlockState getBlockState(int x, int y, int z) {
+        if (y < minBuildHeight || y >= maxBuildHeight) {
+            return Blocks.VOID_AIR.defaultBlockState();
+        }
+        ChunkSnapshot chunk = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        if (chunk == null) {
+            return Blocks.AIR.defaultBlockState();
+        }
+        PalettedContainer<BlockState> section = chunk.sections[(y - minBuildHeight) >> 4];
+        return section != null ? section.get(x & 15, y & 15, z & 15) : Blocks.AIR.defaultBlockState();
+    }
+
+    /**
+     * @return The y of the highest non-air block in the column when the snapshot was taken, matching
+     * {@link ChunkAccess#getHeight(Heightmap.Types, int, int)} for {@link Heightmap.Types#WORLD_SURFACE}
+     */
+    public int getSurfaceHeight(int x, int z) {
+        ChunkSnapshot chunk = chunks.get(ChunkPos.asLong(x >> 4, z >> 4));
+        return chunk != null ? chunk.surface[(z & 15) << 4 | (x & 15)] : minBuildHeight - 1;
+    }
+
+    public int getMaxBuildHeight() {
+        return maxBuildHeight;
+    }
+
+    private static final class ChunkSnapshot {
+        final PalettedContainer<BlockState>[] sections;
+        final int[] surface = new int[16 * 16];
+
+        @SuppressWarnings("unchecked")
+        ChunkSnapshot(ChunkAccess chunk) {
+            this.sections = new PalettedContainer[chunk.getSectionsCount()];
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    surface[z << 4 | x] = chunk.getHeight(Heightmap.Types.WORLD_SURFACE, x, z);
+                }
+            }
+        }
+    }
+}
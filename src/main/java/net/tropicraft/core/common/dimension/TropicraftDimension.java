@@ -156,10 +156,11 @@ public class TropicraftDimension {
 
         if (!player.isOnPortalCooldown()) {
             player.unRide();
-            player.changeDimension(destLevel, new TropicsTeleporter(destLevel));
 
-            //Note: Stops the player from teleporting right after going through the portal
+            //Note: Stops the player from teleporting right after going through the portal, and from
+            // queueing another portal while one is still being built for them
             player.portalCooldown = 160;
+            TropicsPortalPlacement.teleportWithPortal(player, destLevel);
         }
     }
 
@@ -0,0 +1,200 @@
+package net.tropicraft.core.common.dimension;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.LongArrayTag;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.saveddata.SavedData;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.block.TropicraftBlocks;
+
+import javax.annotation.Nullable;
+
+/**
+ * Persistent per-dimension index of every portal water block, bucketed into a coarse horizontal grid
+ * so the teleporter can find the nearest existing portal without scanning the world.
+ * <p>
+ * Portal blocks keep the index current as they are placed and removed. Chunks are also checked for
+ * portal water as they load, which picks up portals built before the index existed.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public class TropicsPortalIndex extends SavedData {
+    private static final String ID = Constants.MODID + "_portals";
+
+    private static final int BUCKET_SHIFT = 6;
+
+    private final Long2ObjectMap<LongSet> buckets = new Long2ObjectOpenHashMap<>();
+
+    public static TropicsPortalIndex get(ServerLevel level) {
+        return level.getDataStorage().computeIfAbsent(TropicsPortalIndex::load, TropicsPortalIndex::new, ID);
+    }
+
+    private static TropicsPortalIndex load(CompoundTag tag) {
+        TropicsPortalIndex index = new TropicsPortalIndex();
+        for (long pos : tag.getLongArray("portals")) {
+            index.getOrCreateBucket(BlockPos.getX(pos), BlockPos.getZ(pos)).add(pos);
+        }
+        return index;
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag) {
+        LongOpenHashSet all = new LongOpenHashSet();
+        for (LongSet bucket : buckets.values()) {
+            all.addAll(bucket);
+        }
+        tag.put("portals", new LongArrayTag(all.toLongArray()));
+        return tag;
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getWorld() instanceof ServerLevel level) || !(event.getChunk() instanceof LevelChunk chunk)) {
+            return;
+        }
+
+        Block portal = TropicraftBlocks.PORTAL_WATER.get();
+        TropicsPortalIndex index = null;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        LevelChunkSection[] sections = chunk.getSections();
+        for (int i = 0; i < sections.length; i++) {
+            LevelChunkSection section = sections[i];
+            // Only sections whose palette contains portal water are worth looking at block by block
+            if (section.hasOnlyAir() || !section.getStates().maybeHas(state -> state.is(portal))) {
+                continue;
+            }
+
+            if (index == null) {
+                index = get(level);
+            }
+
+            int minY = chunk.getMinBuildHeight() + (i << 4);
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        if (section.getBlockState(x, y, z).is(portal)) {
+                            index.add(pos.set(chunk.getPos().getBlockX(x), minY + y, chunk.getPos().getBlockZ(z)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void add(BlockPos pos) {
+        if (getOrCreateBucket(pos.getX(), pos.getZ()).add(pos.asLong())) {
+            setDirty();
+        }
+    }
+
+    public void remove(BlockPos pos) {
+        long key = bucketKey(pos.getX(), pos.getZ());
+        LongSet bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(pos.asLong())) {
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+            setDirty();
+        }
+    }
+
+    public boolean contains(BlockPos pos) {
+        LongSet bucket = buckets.get(bucketKey(pos.getX(), pos.getZ()));
+        return bucket != null && bucket.contains(pos.asLong());
+    }
+
+    /**
+     * Finds the portal column horizontally closest to the given origin within a square search area.
+     * Ties are resolved towards the lowest x and then the lowest z, like the old column-by-column scan.
+     *
+     * @return The lowest block of the topmost run of portal water in the closest column, or null if
+     * there is no portal in range
+     */
+    @Nullable
+    public BlockPos findNearest(BlockPos origin, int searchArea) {
+        int originX = origin.getX();
+        int originZ = origin.getZ();
+
+        boolean found = false;
+        double closestDistance = 0.0;
+        int foundX = 0;
+        int foundZ = 0;
+
+        int minBucketX = (originX - searchArea) >> BUCKET_SHIFT;
+        int maxBucketX = (originX + searchArea) >> BUCKET_SHIFT;
+        int minBucketZ = (originZ - searchArea) >> BUCKET_SHIFT;
+        int maxBucketZ = (originZ + searchArea) >> BUCKET_SHIFT;
+
+        for (int bucketX = minBucketX; bucketX <= maxBucketX; bucketX++) {
+            for (int bucketZ = minBucketZ; bucketZ <= maxBucketZ; bucketZ++) {
+                LongSet bucket = buckets.get(ChunkPos.asLong(bucketX, bucketZ));
+                if (bucket == null) {
+                    continue;
+                }
+
+                LongIterator iterator = bucket.iterator();
+                while (iterator.hasNext()) {
+                    long pos = iterator.nextLong();
+                    int x = BlockPos.getX(pos);
+                    int z = BlockPos.getZ(pos);
+                    if (Math.abs(x - originX) > searchArea || Math.abs(z - originZ) > searchArea) {
+                        continue;
+                    }
+
+                    double distX = x + 0.5 - originX;
+                    double distZ = z + 0.5 - originZ;
+                    double distance = distX * distX + distZ * distZ;
+                    if (!found || distance < closestDistance
+                            || (distance == closestDistance && (x < foundX || (x == foundX && z < foundZ)))) {
+                        found = true;
+                        closestDistance = distance;
+                        foundX = x;
+                        foundZ = z;
+                    }
+                }
+            }
+        }
+
+        if (!found) {
+            return null;
+        }
+
+        LongSet bucket = getOrCreateBucket(foundX, foundZ);
+        int topY = Integer.MIN_VALUE;
+        LongIterator iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if (BlockPos.getX(pos) == foundX && BlockPos.getZ(pos) == foundZ) {
+                topY = Math.max(topY, BlockPos.getY(pos));
+            }
+        }
+
+        int y = topY;
+        while (bucket.contains(BlockPos.asLong(foundX, y - 1, foundZ))) {
+            y--;
+        }
+
+        return new BlockPos(foundX, y, foundZ);
+    }
+
+    private LongSet getOrCreateBucket(int x, int z) {
+        return buckets.computeIfAbsent(bucketKey(x, z), k -> new LongOpenHashSet());
+    }
+
+    private static long bucketKey(int x, int z) {
+        return ChunkPos.asLong(x >> BUCKET_SHIFT, z >> BUCKET_SHIFT);
+    }
+}
@@ -0,0 +1,221 @@
+package net.tropicraft.core.common.dimension;
+
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.level.TicketType;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.tropicraft.core.common.block.PortalWaterBlock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Creates tropics portals without stalling the server thread. Placement runs in stages:
+ * <ol>
+ *     <li>the chunks around the destination are held by a portal ticket and loaded without waiting on the server thread</li>
+ *     <li>a snapshot of those chunks is taken on the server thread, and the site is picked from it on a worker</li>
+ *     <li>if a bridge to land is needed, the chunks along the bridge lines are ticketed, loaded and searched the same way</li>
+ *     <li>the portal is placed in a single pass on the server thread, and the player is sent through it</li>
+ * </ol>
+ * The time spent in each stage is recorded in {@link Stage}.
+ */
+public final class TropicsPortalPlacement {
+    private static final Logger LOGGER = LogManager.getLogger("tropics portal");
+
+    private static final Set<UUID> PENDING = new HashSet<>();
+
+    private static final AtomicLongArray TOTAL_NANOS = new AtomicLongArray(Stage.values().length);
+    private static final AtomicLongArray MAX_NANOS = new AtomicLongArray(Stage.values().length);
+    // Not every placement runs every stage, such as loading a bridge when the portal is already on land
+    private static final AtomicIntegerArray RUNS = new AtomicIntegerArray(Stage.values().length);
+    private static final AtomicInteger PLACED = new AtomicInteger();
+
+    public enum Stage {
+        LOAD_SITE,
+        SELECT_SITE,
+        LOAD_BRIDGE,
+        PLAN,
+        COMMIT;
+
+        void record(long nanos) {
+            RUNS.incrementAndGet(ordinal());
+            TOTAL_NANOS.addAndGet(ordinal(), nanos);
+            MAX_NANOS.accumulateAndGet(ordinal(), nanos, Math::max);
+        }
+
+        public long getTotalNanos() {
+            return TOTAL_NANOS.get(ordinal());
+        }
+
+        public long getMaxNanos() {
+            return MAX_NANOS.get(ordinal());
+        }
+
+        public int getRuns() {
+            return RUNS.get(ordinal());
+        }
+    }
+
+    private TropicsPortalPlacement() {
+    }
+
+    /**
+     * Sends the player through the nearest existing portal in the destination, or starts building a
+     * new one and sends them once it is done. Must be called on the server thread.
+     */
+    public static void teleportWithPortal(ServerPlayer player, ServerLevel destLevel) {
+        TropicsTeleporter teleporter = new TropicsTeleporter(destLevel);
+        if (teleporter.placeInExistingPortal(player) != null) {
+            player.changeDimension(destLevel, teleporter);
+            return;
+        }
+
+        if (!PENDING.add(player.getUUID())) {
+            return;
+        }
+
+        new Job(player, destLevel, teleporter).start();
+    }
+
+    /**
+     * @return A one-line summary of the average and worst time spent in each stage, over the placements that ran it
+     */
+    public static String describeMetrics() {
+        int placed = PLACED.get();
+        StringBuilder builder = new StringBuilder().append(placed).append(" portals placed");
+        for (Stage stage : Stage.values()) {
+            int runs = stage.getRuns();
+            double average = runs > 0 ? stage.getTotalNanos() / 1.0E6 / runs : 0.0;
+            builder.append(String.format(Locale.ROOT, ", %s avg %.2fms max %.2fms", stage.name().toLowerCase(Locale.ROOT), average, stage.getMaxNanos() / 1.0E6));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Asks for the chunks from a worker thread: asking on the server thread waits there until the chunks
+     * are loaded, while asking from any other thread only queues the loads with the server. The caller
+     * must hold the chunks with a ticket so they stay loaded until the portal is placed.
+     */
+    private static CompletableFuture<List<ChunkAccess>> loadChunks(ServerLevel level, List<ChunkPos> chunks) {
+        ServerChunkCache chunkSource = level.getChunkSource();
+        return CompletableFuture.supplyAsync(() -> chunks.stream()
+                        .map(pos -> chunkSource.getChunkFuture(pos.x, pos.z, ChunkStatus.FULL, true)
+                                .thenApply(result -> result.left().orElseThrow(() -> new IllegalStateException("Failed to load chunk " + pos + " for portal placement"))))
+                        .toList(), Util.backgroundExecutor())
+                .thenCompose(Util::sequence);
+    }
+
+    private static final class Job {
+        private final ServerPlayer player;
+        private final ServerLevel level;
+        private final MinecraftServer server;
+        private final TropicsTeleporter teleporter;
+
+        private final double x;
+        private final double y;
+        private final double z;
+
+        private final long startTime = System.nanoTime();
+        private long stageStart = startTime;
+
+        private PortalSiteSnapshot snapshot;
+        private TropicsTeleporter.PortalSite site;
+
+        Job(ServerPlayer player, ServerLevel level, TropicsTeleporter teleporter) {
+            this.player = player;
+            this.level = level;
+            this.server = level.getServer();
+            this.teleporter = teleporter;
+            this.x = player.getX();
+            this.y = player.getY();
+            this.z = player.getZ();
+        }
+
+        void start() {
+            BlockPos origin = new BlockPos(x, y, z);
+            level.getChunkSource().addRegionTicket(TicketType.PORTAL, new ChunkPos(origin), 3, origin);
+
+            loadChunks(level, TropicsTeleporter.getSiteChunks(x, z))
+                    .thenAcceptAsync(chunks -> {
+                        mark(Stage.LOAD_SITE);
+                        snapshot = new PortalSiteSnapshot(level);
+                        chunks.forEach(chunk -> TropicsTeleporter.captureSite(snapshot, chunk));
+                    }, server)
+                    .thenRunAsync(() -> {
+                        site = TropicsTeleporter.selectPortalSite(snapshot, x, y, z);
+                        mark(Stage.SELECT_SITE);
+                    }, Util.backgroundExecutor())
+                    .thenComposeAsync(v -> loadBridge(), server)
+                    .thenApplyAsync(v -> {
+                        List<TropicsTeleporter.PlannedBlock> plan = TropicsTeleporter.planPortal(snapshot, site);
+                        mark(Stage.PLAN);
+                        return plan;
+                    }, Util.backgroundExecutor())
+                    .thenAcceptAsync(this::commit, server)
+                    .whenCompleteAsync((v, throwable) -> {
+                        PENDING.remove(player.getUUID());
+                        if (throwable != null) {
+                            LOGGER.error("Failed to place tropics portal for {}", player.getScoreboardName(), throwable);
+                        }
+                    }, server);
+        }
+
+        private CompletableFuture<Void> loadBridge() {
+            if (site.onLand()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            List<ChunkPos> chunks = TropicsTeleporter.getBridgeChunks(site);
+            BlockPos sitePos = new BlockPos(site.x(), site.y(), site.z());
+            for (ChunkPos chunk : chunks) {
+                level.getChunkSource().addRegionTicket(TicketType.PORTAL, chunk, 0, sitePos);
+            }
+            return loadChunks(level, chunks)
+                    .thenAcceptAsync(chunks -> {
+                        chunks.forEach(chunk -> TropicsTeleporter.captureBridge(snapshot, chunk, site));
+                        mark(Stage.LOAD_BRIDGE);
+                    }, server);
+        }
+
+        private void commit(List<TropicsTeleporter.PlannedBlock> plan) {
+            teleporter.commit(plan);
+            mark(Stage.COMMIT);
+            PLACED.incrementAndGet();
+
+            LOGGER.debug("Placed tropics portal at {} {} {} in {}ms", site.x(), site.y() + 1, site.z(), (System.nanoTime() - startTime) / 1.0E6);
+
+            // The player may have left or walked off while the portal was being built, in which case the
+            // portal is left for the next time they go through
+            if (!player.isRemoved() && player.level != level && isInPortal(player)) {
+                player.changeDimension(level, teleporter);
+                //Note: Stops the player from teleporting right after going through the portal
+                player.portalCooldown = 160;
+            }
+        }
+
+        private static boolean isInPortal(ServerPlayer player) {
+            return player.level.getBlockStates(player.getBoundingBox().inflate(1.0))
+                    .anyMatch(state -> state.getBlock() instanceof PortalWaterBlock);
+        }
+
+        private void mark(Stage stage) {
+            long now = System.nanoTime();
+            stage.record(now - stageStart);
+            stageStart = now;
+        }
+    }
+}
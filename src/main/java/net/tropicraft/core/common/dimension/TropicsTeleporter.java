@@ -1,13 +1,10 @@
 package net.tropicraft.core.common.dimension;
 
-import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectMaps;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.server.level.ServerLevel;
-import net.minecraft.server.level.TicketType;
 import net.minecraft.tags.BlockTags;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
@@ -16,9 +13,7 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.StairBlock;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.chunk.LevelChunk;
-import net.minecraft.world.level.dimension.DimensionType;
-import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.portal.PortalInfo;
 import net.minecraft.world.phys.Vec3;
 import net.minecraftforge.common.util.ITeleporter;
@@ -28,9 +23,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
 import java.util.function.Function;
 
 // TODO: this could do with some significant rethinking & refactoring!
@@ -41,18 +36,33 @@ public class TropicsTeleporter implements ITeleporter {
     private static final Block PORTAL_BLOCK = TropicraftBlocks.PORTAL_WATER.get();
     private static final Block TELEPORTER_BLOCK = TropicraftBlocks.TELEPORT_WATER.get();
 
-    private final ServerLevel world;
+    private static final int SITE_SEARCH_AREA = 16;
+    // Max distance to search in every direction for the nearest landmass to build a bridge to
+    private static final int SEARCH_FOR_LAND_DISTANCE_MAX = 200;
 
     /**
-     * Stores successful portal placement locations for rapid lookup.
+     * TODO why in the world is this a thing?
+     *
+     * List of valid block states to build portal on
      */
+    private static final List<BlockState> VALID_BUILD_BLOCKS = Arrays.asList(
+            Blocks.SAND.defaultBlockState(),
+            Blocks.GRASS.defaultBlockState(),
+            Blocks.DIRT.defaultBlockState(),
+            TropicraftBlocks.PURIFIED_SAND.get().defaultBlockState());
 
-    private final Long2ObjectMap<PortalPosition> destinationCoordinateCache = new Long2ObjectOpenHashMap<>(4096);
+    private final ServerLevel world;
 
-    static final record PortalPosition(BlockPos pos, long lastUpdateTime) {
-        public PortalPosition touch(long time) {
-            return new PortalPosition(this.pos, time);
-        }
+    /**
+     * Where a new portal goes.
+     *
+     * @param y The terrain height; the portal is built on top of it
+     * @param onLand False if no suitable land was close by, in which case a bridge is built to the nearest land
+     */
+    public record PortalSite(int x, int y, int z, boolean onLand) {
+    }
+
+    public record PlannedBlock(BlockPos pos, BlockState state) {
     }
 
     public TropicsTeleporter(ServerLevel world) {
@@ -80,100 +90,119 @@ public class TropicsTeleporter implements ITeleporter {
         }
     }
 
+    @Nullable
     public PortalInfo placeInExistingPortal(Entity entity) {
         int searchArea = 148;
-        double closestPortalDistance = -1D;
-        int foundX = 0;
-        int foundY = 0;
-        int foundZ = 0;
-        int entityX = Mth.floor(entity.getOnPos().getX());
-        int entityZ = Mth.floor(entity.getOnPos().getZ());
-        BlockPos blockpos = BlockPos.ZERO;
-        boolean notInCache = true;
-
-        long queryPos = ChunkPos.asLong(entityX, entityZ);
-
-        if (destinationCoordinateCache.containsKey(queryPos)) {
-            PortalPosition portal = destinationCoordinateCache.get(queryPos);
-            closestPortalDistance = 0.0D;
-            blockpos = portal.pos;
-            destinationCoordinateCache.put(queryPos, portal.touch(world.getGameTime()));
-            notInCache = false;
-        } else {
-            BlockPos.MutableBlockPos mutablePos = new BlockPos.MutableBlockPos();
+        BlockPos origin = entity.getOnPos();
+
+        PortalDestinationCache cache = PortalDestinationCache.get(world);
+        BlockPos portal = cache.get(origin);
+        if (portal == null) {
+            portal = TropicsPortalIndex.get(world).findNearest(origin, searchArea);
+            if (portal == null) {
+                return null;
+            }
+            cache.put(origin, portal);
+        }
 
-            for (int x = entityX - searchArea; x <= entityX + searchArea; x++) {
-                double distX = x + 0.5D - entity.getOnPos().getX();
+        double newLocX = portal.getX() + 0.5D;
+        double newLocY = portal.getY() + 0.5D;
+        double newLocZ = portal.getZ() + 0.5D;
 
-                for (int z = entityZ - searchArea; z <= entityZ + searchArea; z++) {
-                    double distZ = z + 0.5D - entity.getOnPos().getZ();
+        if (world.getBlockState(portal.west()).getBlock() == PORTAL_BLOCK) newLocX -= 0.5D;
+        if (world.getBlockState(portal.east()).getBlock() == PORTAL_BLOCK) newLocX += 0.5D;
+        if (world.getBlockState(portal.north()).getBlock() == PORTAL_BLOCK) newLocZ -= 0.5D;
+        if (world.getBlockState(portal.south()).getBlock() == PORTAL_BLOCK) newLocZ += 0.5D;
 
-                    for (int y = world.getMaxBuildHeight() - 1; y >= 0; y--) {
-                        mutablePos.set(x, y, z);
-                        if (world.getBlockState(mutablePos).getBlock() == PORTAL_BLOCK) {
-                            mutablePos.move(Direction.DOWN);
-                            while (world.getBlockState(mutablePos).getBlock() == PORTAL_BLOCK) {
-                                --y;
-                                mutablePos.move(Direction.DOWN);
-                            }
+        return new PortalInfo(new Vec3(newLocX, newLocY + 2, newLocZ), Vec3.ZERO, entity.getYRot(), entity.getXRot());
+    }
 
-                            double distY = y + 0.5D - mutablePos.getY();
-                            double distance = distX * distX + distY * distY + distZ * distZ;
-                            if (closestPortalDistance < 0.0D || distance < closestPortalDistance) {
-                                closestPortalDistance = distance;
-                                foundX = x;
-                                foundY = y;
-                                foundZ = z;
-                            }
-                        }
-                    }
-                }
-            }
+    public boolean makePortal(Entity entity) {
+        PortalSiteSnapshot snapshot = new PortalSiteSnapshot(world);
+        for (ChunkPos chunkPos : getSiteChunks(entity.getX(), entity.getZ())) {
+            captureSite(snapshot, world.getChunk(chunkPos.x, chunkPos.z));
         }
 
-        if (closestPortalDistance >= 0.0D) {
-            if (notInCache) {
-                this.destinationCoordinateCache.put(queryPos, new PortalPosition(blockpos, this.world.getGameTime()));
+        PortalSite site = selectPortalSite(snapshot, entity.getX(), entity.getY(), entity.getZ());
+        if (!site.onLand()) {
+            for (ChunkPos chunkPos : getBridgeChunks(site)) {
+                captureBridge(snapshot, world.getChunk(chunkPos.x, chunkPos.z), site);
             }
+        }
 
-            double newLocX = foundX + 0.5D;
-            double newLocY = foundY + 0.5D;
-            double newLocZ = foundZ + 0.5D;
+        commit(planPortal(snapshot, site));
+
+        return true;
+    }
 
-            BlockPos pos = new BlockPos(foundX, foundY, foundZ);
+    /**
+     * @return Every chunk that {@link #selectPortalSite} may read for an entity at the given position
+     */
+    public static List<ChunkPos> getSiteChunks(double entityX, double entityZ) {
+        int x = Mth.floor(entityX);
+        int z = Mth.floor(entityZ);
+        // the site search also looks at the columns up to 2 blocks around each candidate
+        int range = SITE_SEARCH_AREA + 2;
+
+        List<ChunkPos> chunks = new ArrayList<>();
+        for (int chunkX = (x - range) >> 4; chunkX <= (x + range) >> 4; chunkX++) {
+            for (int chunkZ = (z - range) >> 4; chunkZ <= (z + range) >> 4; chunkZ++) {
+                chunks.add(new ChunkPos(chunkX, chunkZ));
+            }
+        }
+        return chunks;
+    }
 
-            if (world.getBlockState(pos.west()).getBlock() == PORTAL_BLOCK) newLocX -= 0.5D;
-            if (world.getBlockState(pos.east()).getBlock() == PORTAL_BLOCK) newLocX += 0.5D;
-            if (world.getBlockState(pos.north()).getBlock() == PORTAL_BLOCK) newLocZ -= 0.5D;
-            if (world.getBlockState(pos.south()).getBlock() == PORTAL_BLOCK) newLocZ += 0.5D;
+    public static void captureSite(PortalSiteSnapshot snapshot, ChunkAccess chunk) {
+        snapshot.capture(chunk, 0, snapshot.getMaxBuildHeight() - 1);
+    }
 
-            return new PortalInfo(new Vec3(newLocX, newLocY + 2, newLocZ), Vec3.ZERO, entity.getYRot(), entity.getXRot());
-        } else {
-            return null;
+    /**
+     * @return Every chunk that {@link #planPortal} may read while searching for land to build a bridge to
+     */
+    public static List<ChunkPos> getBridgeChunks(PortalSite site) {
+        LongSet chunks = new LongLinkedOpenHashSet();
+        BlockPos origin = new BlockPos(site.x(), site.y(), site.z());
+        for (Direction dir : Direction.Plane.HORIZONTAL) {
+            for (int dist = 1; dist < SEARCH_FOR_LAND_DISTANCE_MAX; dist++) {
+                chunks.add(ChunkPos.asLong(origin.relative(dir, 3 + dist)));
+            }
         }
+
+        List<ChunkPos> result = new ArrayList<>(chunks.size());
+        chunks.forEach(chunk -> result.add(new ChunkPos(chunk)));
+        return result;
     }
 
-    public boolean makePortal(Entity entity) {
-        int searchArea = 16;
+    public static void captureBridge(PortalSiteSnapshot snapshot, ChunkAccess chunk, PortalSite site) {
+        snapshot.capture(chunk, site.y(), site.y());
+    }
+
+    /**
+     * Picks where a new portal should go. This only reads from the snapshot, so it is safe to call
+     * off the server thread.
+     */
+    public static PortalSite selectPortalSite(PortalSiteSnapshot snapshot, double entityPosX, double entityPosY, double entityPosZ) {
+        int searchArea = SITE_SEARCH_AREA;
         double closestSpot = -1D;
-        int entityX = Mth.floor(entity.getX());
-        int entityY = Mth.floor(entity.getY());
-        int entityZ = Mth.floor(entity.getZ());
+        int entityX = Mth.floor(entityPosX);
+        int entityZ = Mth.floor(entityPosZ);
         int foundX = entityX;
-        int foundY = entityY;
         int foundZ = entityZ;
 
+        int maxBuildHeight = snapshot.getMaxBuildHeight();
+
         for (int x = entityX - searchArea; x <= entityX + searchArea; x++) {
-            double distX = (x + 0.5D) - entity.getX();
+            double distX = (x + 0.5D) - entityPosX;
             nextCoords:
             for (int z = entityZ - searchArea; z <= entityZ + searchArea; z++) {
-                double distZ = (z + 0.5D) - entity.getZ();
+                double distZ = (z + 0.5D) - entityPosZ;
 
                 // Find topmost solid block at this x,z location
-                int y = world.getMaxBuildHeight() - 1;
+                int y = maxBuildHeight - 1;
                 BlockPos pos = new BlockPos(x, y, z);
-                for (; y >= 63 - 1 && (world.getBlockState(pos).getBlock() == Blocks.AIR ||
-                        !getValidBuildBlocks().contains(world.getBlockState(pos))); pos = pos.below()) {
+                for (; y >= 63 - 1 && (getBlockState(snapshot, pos).getBlock() == Blocks.AIR ||
+                        !VALID_BUILD_BLOCKS.contains(getBlockState(snapshot, pos))); pos = pos.below()) {
                     y = pos.getY();
                 }
                 // Only generate portal between sea level and sea level + 20
@@ -182,14 +211,14 @@ public class TropicsTeleporter implements ITeleporter {
                 }
 
                 BlockPos tryPos = new BlockPos(x, y, z);
-                if (getValidBuildBlocks().contains(world.getBlockState(tryPos))) {
+                if (VALID_BUILD_BLOCKS.contains(getBlockState(snapshot, tryPos))) {
                     for (int xOffset = -2; xOffset <= 2; xOffset++) {
                         for (int zOffset = -2; zOffset <= 2; zOffset++) {
-                            int otherY = world.getMaxBuildHeight() - 1;
+                            int otherY = maxBuildHeight - 1;
                             BlockPos pos1 = new BlockPos(x + xOffset, otherY, z + zOffset);
                             BlockPos pos2 = tryPos.mutable();
-                            for (; otherY >= 63 && (world.getBlockState(pos1).getBlock() == Blocks.AIR ||
-                                    !world.getBlockState(pos2).isAir()); pos1 = pos1.below()) {
+                            for (; otherY >= 63 && (getBlockState(snapshot, pos1).getBlock() == Blocks.AIR ||
+                                    !getBlockState(snapshot, pos2).isAir()); pos1 = pos1.below()) {
                                 otherY = pos1.getY();
                             }
                             if (Math.abs(y - otherY) >= 3) {
@@ -202,12 +231,11 @@ public class TropicsTeleporter implements ITeleporter {
                         }
                     }
 
-                    double distY = (y + 0.5D) - entity.getY();
+                    double distY = (y + 0.5D) - entityPosY;
                     double distance = distX * distX + distY * distY + distZ * distZ;
                     if (closestSpot < 0.0D || distance < closestSpot) {
                         closestSpot = distance;
                         foundX = x;
-                        foundY = y;
                         foundZ = z;
                     }
                 }
@@ -216,52 +244,80 @@ public class TropicsTeleporter implements ITeleporter {
 
         int worldSpawnX = Mth.floor(foundX);//TODO + ((new Random()).nextBoolean() ? 3 : -3);
         int worldSpawnZ = Mth.floor(foundZ);//TODO + ((new Random()).nextBoolean() ? 3 : -3);
-        int worldSpawnY = getTerrainHeightAt(worldSpawnX, worldSpawnZ);//world.getHeightValue(worldSpawnX, worldSpawnZ) - 2;
-
-        // Max distance to search in every direction for the nearest landmass to build a bridge to
-        int SEARCH_FOR_LAND_DISTANCE_MAX = 200;
+        int worldSpawnY = getTerrainHeightAt(snapshot, worldSpawnX, worldSpawnZ);//world.getHeightValue(worldSpawnX, worldSpawnZ) - 2;
 
         // If we can't find a spot (e.g. we're in the middle of the ocean),
-        // just put the portal at sea level
-        if (closestSpot < 0.0D) {
-            // Perhaps this was the culprit
-            Random r = new Random();
-            foundX += r.nextInt(16) - 8;
-            foundZ += r.nextInt(16) - 8;
-
-            foundY = worldSpawnY - 2;
+        // the portal goes at the terrain height and a bridge is built to the nearest land
+        return new PortalSite(worldSpawnX, worldSpawnY, worldSpawnZ, closestSpot >= 0.0D);
+    }
+
+    /**
+     * Lays out every block of the portal, and of the bridge to land if one is needed, in placement
+     * order. This only reads from the snapshot, so it is safe to call off the server thread.
+     */
+    public static List<PlannedBlock> planPortal(PortalSiteSnapshot snapshot, PortalSite site) {
+        List<PlannedBlock> plan = new ArrayList<>();
+
+        int worldSpawnX = site.x();
+        int worldSpawnY = site.y();
+        int worldSpawnZ = site.z();
+
+        if (!site.onLand()) {
             boolean foundLand = false;
 
             for (int dist = 1; !foundLand && dist < SEARCH_FOR_LAND_DISTANCE_MAX; dist++) {
                 for (Direction dir : Direction.Plane.HORIZONTAL) {
                     BlockPos pos = new BlockPos(worldSpawnX, worldSpawnY, worldSpawnZ).relative(dir, 3 + dist);
-                    BlockState state = world.getBlockState(pos);
-                    if (getValidBuildBlocks().contains(state)) {
+                    BlockState state = getBlockState(snapshot, pos);
+                    if (VALID_BUILD_BLOCKS.contains(state)) {
                         foundLand = true;
                         BlockPos buildpos = new BlockPos(worldSpawnX, worldSpawnY + 1, worldSpawnZ).relative(dir, 3);
                         while (!buildpos.equals(pos.above())) {
                             BlockState thatch = TropicraftBlocks.THATCH_BUNDLE.get().defaultBlockState();
-                            world.setBlockAndUpdate(buildpos, thatch);
-                            world.setBlockAndUpdate(buildpos.relative(dir.getClockWise()), thatch);
-                            world.setBlockAndUpdate(buildpos.relative(dir.getCounterClockWise()), thatch);
+                            plan.add(new PlannedBlock(buildpos, thatch));
+                            plan.add(new PlannedBlock(buildpos.relative(dir.getClockWise()), thatch));
+                            plan.add(new PlannedBlock(buildpos.relative(dir.getCounterClockWise()), thatch));
                             buildpos = buildpos.relative(dir);
                         }
 
                         BlockPos stairPosMid = new BlockPos(pos.getX(), worldSpawnY + 1, worldSpawnZ);
-                        placeStairs(stairPosMid, dir.getOpposite());
-                        generateThatchBorder(worldSpawnX, worldSpawnY + 1, worldSpawnZ);
+                        placeStairs(plan, stairPosMid, dir.getOpposite());
+                        generateThatchBorder(plan, worldSpawnX, worldSpawnY + 1, worldSpawnZ);
                         break;
                     }
                 }
             }
         }
 
-        buildTeleporterAt(worldSpawnX, worldSpawnY + 1, worldSpawnZ);
+        buildTeleporterAt(plan, worldSpawnX, worldSpawnY + 1, worldSpawnZ);
 
-        return true;
+        return plan;
+    }
+
+    /**
+     * Places a planned portal in one pass. Must be called on the server thread.
+     * <p>
+     * Neighbours are not updated as each block goes in, so the water doesn't start flowing into a half-built
+     * frame and every block isn't updated again by each of the blocks placed around it. Instead, once the
+     * whole portal is down, every placed block updates its neighbours once.
+     */
+    public void commit(List<PlannedBlock> plan) {
+        for (PlannedBlock block : plan) {
+            world.setBlock(block.pos(), block.state(), Block.UPDATE_CLIENTS | Block.UPDATE_KNOWN_SHAPE);
+        }
+
+        for (PlannedBlock block : plan) {
+            BlockState state = world.getBlockState(block.pos());
+            state.updateNeighbourShapes(world, block.pos(), Block.UPDATE_CLIENTS);
+            world.blockUpdated(block.pos(), state.getBlock());
+        }
+    }
+
+    private static BlockState getBlockState(PortalSiteSnapshot snapshot, BlockPos pos) {
+        return snapshot.getBlockState(pos.getX(), pos.getY(), pos.getZ());
     }
 
-    private void placeStairs(BlockPos pos, Direction dir) {
+    private static void placeStairs(List<PlannedBlock> plan, BlockPos pos, Direction dir) {
         if (dir == Direction.EAST || dir == Direction.WEST) {
             BlockPos stairPosLeft = pos.offset(0, 0, -1);
             BlockPos stairPosMid = pos;
@@ -269,9 +325,9 @@ public class TropicsTeleporter implements ITeleporter {
 
             BlockState thatchStairState = TropicraftBlocks.THATCH_STAIRS.get().defaultBlockState().setValue(StairBlock.FACING, dir);
 
-            world.setBlockAndUpdate(stairPosLeft, thatchStairState);
-            world.setBlockAndUpdate(stairPosMid, thatchStairState);
-            world.setBlockAndUpdate(stairPosRight, thatchStairState);
+            plan.add(new PlannedBlock(stairPosLeft, thatchStairState));
+            plan.add(new PlannedBlock(stairPosMid, thatchStairState));
+            plan.add(new PlannedBlock(stairPosRight, thatchStairState));
         } else if (dir == Direction.NORTH || dir == Direction.SOUTH) {
             BlockPos stairPosLeft = pos.offset(-1, 0, 0);
             BlockPos stairPosMid = pos;
@@ -279,19 +335,19 @@ public class TropicsTeleporter implements ITeleporter {
 
             BlockState thatchStairState = TropicraftBlocks.THATCH_STAIRS.get().defaultBlockState().setValue(StairBlock.FACING, dir);
 
-            world.setBlockAndUpdate(stairPosLeft, thatchStairState);
-            world.setBlockAndUpdate(stairPosMid, thatchStairState);
-            world.setBlockAndUpdate(stairPosRight, thatchStairState);
+            plan.add(new PlannedBlock(stairPosLeft, thatchStairState));
+            plan.add(new PlannedBlock(stairPosMid, thatchStairState));
+            plan.add(new PlannedBlock(stairPosRight, thatchStairState));
         }
     }
 
-    private void generateThatchBorder(int x, int y, int z) {
+    private static void generateThatchBorder(List<PlannedBlock> plan, int x, int y, int z) {
         for (int zOffset = -4; zOffset <= 4; zOffset++) {
             for (int xOffset = -4; xOffset <= 4; xOffset++) {
                 boolean isWall = xOffset < -2 || xOffset > 2 || zOffset < -2 || zOffset > 2;
                 if (isWall) {
                     BlockPos thatchPos = new BlockPos(x + xOffset, y, z + zOffset);
-                    world.setBlockAndUpdate(thatchPos, TropicraftBlocks.THATCH_BUNDLE.get().defaultBlockState());
+                    plan.add(new PlannedBlock(thatchPos, TropicraftBlocks.THATCH_BUNDLE.get().defaultBlockState()));
                 }
             }
         }
@@ -306,11 +362,16 @@ public class TropicsTeleporter implements ITeleporter {
      */
 
     public int getTerrainHeightAt(int x, int z) {
-        LevelChunk chunk2 = world.getChunk(x >> 4, z >> 4);
-        int worldSpawnY = chunk2.getHeight(Heightmap.Types.WORLD_SURFACE, x & 15, z & 15);
+        PortalSiteSnapshot snapshot = new PortalSiteSnapshot(world);
+        captureSite(snapshot, world.getChunk(x >> 4, z >> 4));
+        return getTerrainHeightAt(snapshot, x, z);
+    }
+
+    private static int getTerrainHeightAt(PortalSiteSnapshot snapshot, int x, int z) {
+        int worldSpawnY = snapshot.getSurfaceHeight(x, z);
 
         for (int y = worldSpawnY; y > 0; y--) {
-            BlockState state = world.getBlockState(new BlockPos(x, y, z));
+            BlockState state = snapshot.getBlockState(x, y, z);
 
             //TODO [1.17]: Confirm that these tags are going to work with modded blocks
             if (state.is(BlockTags.DIRT) || state.is(BlockTags.SAND) || state.is(Blocks.WATER) || state.is(BlockTags.BASE_STONE_OVERWORLD)) {
@@ -321,6 +382,12 @@ public class TropicsTeleporter implements ITeleporter {
     }
 
     public void buildTeleporterAt(int x, int y, int z) {
+        List<PlannedBlock> plan = new ArrayList<>();
+        buildTeleporterAt(plan, x, y, z);
+        commit(plan);
+    }
+
+    private static void buildTeleporterAt(List<PlannedBlock> plan, int x, int y, int z) {
         y = Math.max(y, 9);
 
         for (int yOffset = 4; yOffset >= -7; yOffset--) {
@@ -333,72 +400,34 @@ public class TropicsTeleporter implements ITeleporter {
 
                     if (yOffset == -7) {
                         // Set bottom of portal to be solid
-                        world.setBlockAndUpdate(pos, PORTAL_WALL_BLOCK.defaultBlockState());
+                        plan.add(new PlannedBlock(pos, PORTAL_WALL_BLOCK.defaultBlockState()));
                     } else if (yOffset > 0) {
                         // Set 4 blocks above portal to air
-                        world.setBlockAndUpdate(pos, Blocks.AIR.defaultBlockState());
+                        plan.add(new PlannedBlock(pos, Blocks.AIR.defaultBlockState()));
                     } else {
                         boolean isWall = xOffset == -2 || xOffset == 2 || zOffset == -2 || zOffset == 2;
                         if (isWall) {
                             // Set walls around portal
-                            world.setBlockAndUpdate(pos, PORTAL_WALL_BLOCK.defaultBlockState());
+                            plan.add(new PlannedBlock(pos, PORTAL_WALL_BLOCK.defaultBlockState()));
                         } else {
                             // Set inside of portal
                             boolean isTeleportBlock = yOffset <= -5;
                             if (isTeleportBlock) {
-                                world.setBlockAndUpdate(pos, TELEPORTER_BLOCK.defaultBlockState());
+                                plan.add(new PlannedBlock(pos, TELEPORTER_BLOCK.defaultBlockState()));
                             } else {
-                                world.setBlockAndUpdate(pos, PORTAL_BLOCK.defaultBlockState());
+                                plan.add(new PlannedBlock(pos, PORTAL_BLOCK.defaultBlockState()));
                             }
                         }
                     }
 
                     boolean isCorner = (xOffset == -2 || xOffset == 2) && (zOffset == -2 || zOffset == 2);
                     if (yOffset == 0 && isCorner) {
-                        world.setBlock(pos.above(), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.LOWER), 3);
-                        world.setBlock(pos.above(2), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.MIDDLE), 3);
-                        world.setBlock(pos.above(3), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.UPPER), 3);
+                        plan.add(new PlannedBlock(pos.above(), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.LOWER)));
+                        plan.add(new PlannedBlock(pos.above(2), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.MIDDLE)));
+                        plan.add(new PlannedBlock(pos.above(3), TropicraftBlocks.TIKI_TORCH.get().defaultBlockState().setValue(TikiTorchBlock.SECTION, TikiTorchBlock.TorchSection.UPPER)));
                     }
                 }
             }
         }
     }
-
-    public void tick(long worldTime) {
-        if (worldTime % 100L == 0L) {
-            this.pruneCoordinateCache(worldTime);
-        }
-    }
-
-    private void pruneCoordinateCache(long gameTime) {
-        long sinceTime = gameTime - 300L;
-
-        ObjectIterator<Long2ObjectMap.Entry<PortalPosition>> iterator = Long2ObjectMaps.fastIterator(this.destinationCoordinateCache);
-        while (iterator.hasNext()) {
-            Long2ObjectMap.Entry<PortalPosition> entry = iterator.next();
-            PortalPosition position = entry.getValue();
-            if (position.lastUpdateTime < sinceTime) {
-                ChunkPos columnPos = new ChunkPos(entry.getLongKey());
-                DimensionType dimension = this.world.getLevel().dimensionType();
-                LOGGER.debug("Removing tropics portal ticket for {}:{}", dimension, columnPos);
-                this.world.getChunkSource().registerTickingTicket(TicketType.PORTAL, columnPos, 3, position.pos);
-                iterator.remove();
-            }
-        }
-    }
-
-    /**
-     * TODO why in the world is this a thing?
-     *
-     * @return List of valid block states to build portal on
-     */
-
-    private List<BlockState> getValidBuildBlocks() {
-        return Arrays.asList(
-                Blocks.SAND.defaultBlockState(),
-                Blocks.GRASS.defaultBlockState(),
-                Blocks.DIRT.defaultBlockState(),
-                TropicraftBlocks.PURIFIED_SAND.get().defaultBlockState());
-    }
 }
-
@@ -0,0 +1,72 @@
+package net.tropicraft.core.common.dimension.biome;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Holder;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Climate;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-thread, direct-mapped cache of the biome at each quart position, so repeated lookups of the same
+ * position skip the climate parameter search. Each thread owns its own table, so no locking is needed.
+ * <p>
+ * The table holds enough entries for the quarts of a chunk and its neighbours at a few heights. A
+ * cache only ever holds results for one climate sampler, and starts over when it is asked about another,
+ * so it should only be used for a sampler that lives as long as the generator does.
+ */
+public final class QuartBiomeCache {
+    private static final int SIZE = 4096;
+    private static final int MASK = SIZE - 1;
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private final long[] keys = new long[SIZE];
+    @SuppressWarnings("unchecked")
+    private final Holder<Biome>[] values = new Holder[SIZE];
+
+    @Nullable
+    private Climate.Sampler sampler;
+
+    @Nullable
+    public Holder<Biome> get(int x, int y, int z, Climate.Sampler sampler) {
+        if (this.sampler != sampler) {
+            this.sampler = sampler;
+            Arrays.fill(values, null);
+        }
+
+        long key = BlockPos.asLong(x, y, z);
+        int slot = slot(key);
+        Holder<Biome> value = values[slot];
+        if (value != null && keys[slot] == key) {
+            HITS.increment();
+            return value;
+        }
+
+        MISSES.increment();
+        return null;
+    }
+
+    public void put(int x, int y, int z, Holder<Biome> biome) {
+        long key = BlockPos.asLong(x, y, z);
+        int slot = slot(key);
+        keys[slot] = key;
+        values[slot] = biome;
+    }
+
+    public static long getHits() {
+        return HITS.sum();
+    }
+
+    public static long getMisses() {
+        return MISSES.sum();
+    }
+
+    private static int slot(long key) {
+        return (int) HashCommon.mix(key) & MASK;
+    }
+}
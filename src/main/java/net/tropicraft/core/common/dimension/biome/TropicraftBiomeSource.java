@@ -18,6 +18,7 @@ import net.minecraftforge.registries.RegistryObject;
 import net.tropicraft.Constants;
 import net.tropicraft.core.common.dimension.TropicraftTerrainShaper;
 
+import javax.annotation.Nullable;
 import java.text.DecimalFormat;
 import java.util.List;
 import java.util.Set;
@@ -53,6 +54,9 @@ public class TropicraftBiomeSource extends BiomeSource {
     private final long seed;
     private final Registry<Biome> biomes;
     private final Climate.ParameterList<Holder<Biome>> parameters;
+    private final ThreadLocal<QuartBiomeCache> biomeCache = ThreadLocal.withInitial(QuartBiomeCache::new);
+    @Nullable
+    private volatile Climate.Sampler cachedSampler;
 
     public TropicraftBiomeSource(long seed, Registry<Biome> biomes) {
         super(POSSIBLE_BIOMES.stream().map(biomes::getHolderOrThrow));
@@ -81,9 +85,29 @@ public class TropicraftBiomeSource extends BiomeSource {
         return new TropicraftBiomeSource(seed, biomes);
     }
 
+    /**
+     * Sets the climate sampler whose biome lookups are cached. This should be the chunk generator's own,
+     * which lives as long as it does and is what structure, spawning and locate lookups go through. Other
+     * samplers, such as the one made for each chunk while its biomes are filled in, ask about each
+     * position only once, so their lookups skip the cache rather than evicting everything in it.
+     */
+    public void setCachedSampler(Climate.Sampler sampler) {
+        this.cachedSampler = sampler;
+    }
+
     @Override
     public Holder<Biome> getNoiseBiome(int x, int y, int z, Climate.Sampler sampler) {
-        return this.parameters.findValue(sampler.sample(x, y, z));
+        if (sampler != this.cachedSampler) {
+            return this.parameters.findValue(sampler.sample(x, y, z));
+        }
+
+        QuartBiomeCache cache = this.biomeCache.get();
+        Holder<Biome> biome = cache.get(x, y, z, sampler);
+        if (biome == null) {
+            biome = this.parameters.findValue(sampler.sample(x, y, z));
+            cache.put(x, y, z, biome);
+        }
+        return biome;
     }
 
     public void addDebugInfo(List<String> p_207895_, BlockPos p_207896_, Climate.Sampler p_207897_) {
@@ -16,15 +16,37 @@ import net.tropicraft.core.common.dimension.biome.TropicraftBiomes;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Headless tool for tuning {@link TropicraftBiomeBuilder} and the terrain shaper. Renders a biome map,
+ * and optionally the terrain data maps, and prints the biome coverage and how fast each stage ran.
+ * <p>
+ * Arguments are given as {@code --name=value}:
+ * <ul>
+ *     <li>{@code size}: width and height of the maps in pixels, 1024 by default</li>
+ *     <li>{@code scale}: blocks per pixel, 1 by default</li>
+ *     <li>{@code seed}: world seed, a fixed seed by default</li>
+ *     <li>{@code threads}: worker threads, all processors by default</li>
+ *     <li>{@code terrain}: whether to also render the terrain data maps, true by default</li>
+ *     <li>{@code out}: directory to write the maps to, {@code ./run} by default</li>
+ * </ul>
+ */
 public class BiomeSimulator {
     private static final Map<ResourceKey<Biome>, Integer> COLORS = new HashMap<>();
+    private static final int TILE_SIZE = 64;
+
     static {
         SharedConstants.tryDetectVersion();
         Bootstrap.bootStrap();
@@ -41,90 +63,240 @@ public class BiomeSimulator {
         COLORS.put(TropicraftBiomes.OVERGROWN_MANGROVES.getKey(), 0x5d8733);
     }
 
-    public static void main(String[] args) {
+    public record Options(int size, int scale, long seed, int threads, boolean terrain, Path output) {
+        public static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value but got " + arg);
+                }
+                int split = arg.indexOf('=');
+                values.put(arg.substring(2, split), arg.substring(split + 1));
+            }
 
-        init(new NoiseSimulationHelper(new Random(101).nextLong()));
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("size", "1024")),
+                    Integer.parseInt(values.getOrDefault("scale", "1")),
+                    values.containsKey("seed") ? Long.parseLong(values.get("seed")) : new Random(101).nextLong(),
+                    Integer.parseInt(values.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                    Boolean.parseBoolean(values.getOrDefault("terrain", "true")),
+                    Paths.get(values.getOrDefault("out", "./run"))
+            );
+        }
+    }
+
+    public static void main(String[] args) {
+        Options options = Options.parse(args);
+        run(new NoiseSimulationHelper(options.seed()), options);
     }
 
     public static void init(NoiseSimulationHelper sampler) {
+        run(sampler, new Options(1024, 1, 0, Runtime.getRuntime().availableProcessors(), true, Paths.get(".", "run")));
+    }
+
+    public static void run(NoiseSimulationHelper sampler, Options options) {
         ImmutableList.Builder<Pair<Climate.ParameterPoint, ResourceKey<Biome>>> builder = ImmutableList.builder();
         new TropicraftBiomeBuilder().addBiomes((point, biome) -> builder.add(Pair.of(point, biome.getKey())));
 
         Climate.ParameterList<ResourceKey<Biome>> params = new Climate.ParameterList<>(builder.build());
 
+        Simulation simulation = new Simulation(sampler, params, options);
 
-        int size = 1024;
-        boolean generateTerrainData = true;
+        long startTime = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(options.threads());
+        try {
+            pool.invoke(new SimulateTiles(simulation, 0, 0, simulation.tiles, simulation.tiles));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - startTime;
 
+        simulation.report(elapsed);
+        simulation.write();
+    }
 
-        int size8 = size / 8;
-        BufferedImage biomeMap = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
-        BufferedImage baseDepthMap = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
-        BufferedImage biomeDepth = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
-        BufferedImage biomeScale = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
-        BufferedImage biomePeaks = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+    private enum Stage {
+        BIOME,
+        TERRAIN_POINT,
+        PRELIM_SURFACE
+    }
+
+    private static final class Simulation {
+        final NoiseSimulationHelper sampler;
+        final Climate.ParameterList<ResourceKey<Biome>> params;
+        final Options options;
+        final int size;
+        final int tiles;
+
+        final BufferedImage biomeMap;
+        final BufferedImage baseDepthMap;
+        final BufferedImage biomeDepth;
+        final BufferedImage biomeScale;
+        final BufferedImage biomePeaks;
+
+        final Reference2IntOpenHashMap<ResourceKey<Biome>> coverage = new Reference2IntOpenHashMap<>();
+        final LongAdder[] stageNanos = new LongAdder[Stage.values().length];
+        final AtomicInteger completedTiles = new AtomicInteger();
+
+        // Each worker samples through its own column caches
+        final ThreadLocal<NoiseSimulationHelper.ColumnSampler> columnSamplers;
+
+        Simulation(NoiseSimulationHelper sampler, Climate.ParameterList<ResourceKey<Biome>> params, Options options) {
+            this.sampler = sampler;
+            this.params = params;
+            this.options = options;
+            this.size = options.size();
+            this.tiles = (size + TILE_SIZE - 1) / TILE_SIZE;
 
-        Reference2IntOpenHashMap<ResourceKey<Biome>> map = new Reference2IntOpenHashMap<>();
-        map.defaultReturnValue(0);
+            this.biomeMap = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            this.baseDepthMap = options.terrain() ? new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB) : null;
+            this.biomeDepth = options.terrain() ? new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB) : null;
+            this.biomeScale = options.terrain() ? new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB) : null;
+            this.biomePeaks = options.terrain() ? new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB) : null;
 
-        for (int x = 0; x < size; x++) {
-            if (x % size8 == 0) {
-                System.out.println("Mapping... " + ((x / size8) / 8.0) * 100 + "%");
+            for (int i = 0; i < stageNanos.length; i++) {
+                stageNanos[i] = new LongAdder();
             }
+            this.columnSamplers = ThreadLocal.withInitial(sampler::columnSampler);
+        }
+
+        void simulateTile(int tileX, int tileZ) {
+            NoiseSimulationHelper.ColumnSampler columns = columnSamplers.get();
+            Reference2IntOpenHashMap<ResourceKey<Biome>> tileCoverage = new Reference2IntOpenHashMap<>();
+            long biomeNanos = 0;
+            long pointNanos = 0;
+            long surfaceNanos = 0;
+
+            // Pixels are written straight into the image buffers; tiles never overlap
+            int[] biomePixels = pixels(biomeMap);
+            int[] baseDepthPixels = options.terrain() ? pixels(baseDepthMap) : null;
+            int[] depthPixels = options.terrain() ? pixels(biomeDepth) : null;
+            int[] scalePixels = options.terrain() ? pixels(biomeScale) : null;
+            int[] peaksPixels = options.terrain() ? pixels(biomePeaks) : null;
+
+            int maxX = Math.min(size, (tileX + 1) * TILE_SIZE);
+            int maxZ = Math.min(size, (tileZ + 1) * TILE_SIZE);
+            for (int px = tileX * TILE_SIZE; px < maxX; px++) {
+                int x = px * options.scale();
+                for (int pz = tileZ * TILE_SIZE; pz < maxZ; pz++) {
+                    int z = pz * options.scale();
+                    int index = pz * size + px;
+
+                    // TODO: when we have cave biomes, we need to make a top map and a bottom map
+
+                    int y = 40;
+                    long start = System.nanoTime();
+                    ResourceKey<Biome> value = params.findValue(columns.sample(x, y, z));
+                    long biomeEnd = System.nanoTime();
+                    biomeNanos += biomeEnd - start;
 
-            for (int z = 0; z < size; z++) {
-//                NoiseSampler.FlatNoiseData data = sampler.noiseData(x, z, Blender.empty());
-//                int ay = 0;
-//                // Find topmost Y coord
-//                for (int y = -8; y < 40; y++) {
-//                    double offset = sampler.offset(y * 8, data.terrainInfo());
-//
-//                    if (offset < -4) {
-//                        ay = y + 3;
-//                        break;
-//                    }
-//                }
-
-                // TODO: when we have cave biomes, we need to make a top map and a bottom map
-
-                int y = 40;
-                ResourceKey<Biome> value = params.findValue(sampler.sample(x, y, z));
-                TerrainShaper.Point point = sampler.buildPoint(x, 40, z);
-
-                if (!COLORS.containsKey(value)) throw new RuntimeException("Resource key not found: " + value);
-
-                map.addTo(value, 1);
-
-                biomeMap.setRGB(x, z, COLORS.getOrDefault(value, 0));
-
-                if (generateTerrainData) {
-                    int prelimSurface = (int) (sampler.prelimSurfaceLevel(x, z)); // needs to be mapped [0, 255]?
-                    int o = (int) (Mth.clampedMap((sampler.offset(point)), -0.3, 1.2, 0, 255));
-                    int f = (int) ((sampler.factor(point)) * 35);
-                    int pv = (int) ((sampler.peaksAndValleys(x, y, z)) * 127) + 128;
-                    baseDepthMap.setRGB(x, z, getIntFromColor(prelimSurface, prelimSurface, prelimSurface));
-                    biomeDepth.setRGB(x, z, getIntFromColor(o, o, o));
-                    biomeScale.setRGB(x, z, getIntFromColor(f, f, f));
-                    biomePeaks.setRGB(x, z, getIntFromColor(pv, pv, pv));
+                    if (!COLORS.containsKey(value)) throw new RuntimeException("Resource key not found: " + value);
+
+                    tileCoverage.addTo(value, 1);
+                    biomePixels[index] = COLORS.get(value);
+
+                    if (options.terrain()) {
+                        TerrainShaper.Point point = columns.buildPoint(x, y, z);
+                        int o = (int) (Mth.clampedMap((sampler.offset(point)), -0.3, 1.2, 0, 255));
+                        int f = (int) ((sampler.factor(point)) * 35);
+                        int pv = (int) ((columns.peaksAndValleys(point)) * 127) + 128;
+                        long pointEnd = System.nanoTime();
+                        pointNanos += pointEnd - biomeEnd;
+
+                        int prelimSurface = (int) (columns.prelimSurfaceLevel(x, z)); // needs to be mapped [0, 255]?
+                        surfaceNanos += System.nanoTime() - pointEnd;
+
+                        baseDepthPixels[index] = getIntFromColor(prelimSurface, prelimSurface, prelimSurface);
+                        depthPixels[index] = getIntFromColor(o, o, o);
+                        scalePixels[index] = getIntFromColor(f, f, f);
+                        peaksPixels[index] = getIntFromColor(pv, pv, pv);
+                    }
+                }
+            }
+
+            stageNanos[Stage.BIOME.ordinal()].add(biomeNanos);
+            stageNanos[Stage.TERRAIN_POINT.ordinal()].add(pointNanos);
+            stageNanos[Stage.PRELIM_SURFACE.ordinal()].add(surfaceNanos);
+            synchronized (coverage) {
+                for (Reference2IntMap.Entry<ResourceKey<Biome>> entry : tileCoverage.reference2IntEntrySet()) {
+                    coverage.addTo(entry.getKey(), entry.getIntValue());
+                }
+            }
+
+            int total = tiles * tiles;
+            int done = completedTiles.incrementAndGet();
+            if (done * 10 / total != (done - 1) * 10 / total) {
+                System.out.println("Mapping... " + done * 100 / total + "%");
+            }
+        }
+
+        void report(long elapsedNanos) {
+            double samples = (double) size * size;
+            for (Reference2IntMap.Entry<ResourceKey<Biome>> entry : coverage.reference2IntEntrySet()) {
+                System.out.println(entry.getKey().location() + ": " + (entry.getIntValue() / samples) * 100 + "%");
+            }
+
+            System.out.printf("Simulated %d samples in %.2fs on %d threads (%.0f samples/s)%n", (long) samples, elapsedNanos / 1.0E9, options.threads(), samples / (elapsedNanos / 1.0E9));
+            for (Stage stage : Stage.values()) {
+                long nanos = stageNanos[stage.ordinal()].sum();
+                if (nanos > 0) {
+                    System.out.printf("  %s: %.0f samples per thread-second%n", stage.name().toLowerCase(), samples / (nanos / 1.0E9));
                 }
             }
         }
 
-        for (Reference2IntMap.Entry<ResourceKey<Biome>> entry : map.reference2IntEntrySet()) {
-            System.out.println(entry.getKey().location() + ": " + (entry.getIntValue() / (((double)size) * ((double) size))) * 100 + "%");
+        void write() {
+            Path p = options.output();
+            try {
+                Files.createDirectories(p);
+                ImageIO.write(biomeMap, "png", p.resolve("biomes.png").toAbsolutePath().toFile());
+                if (options.terrain()) {
+                    ImageIO.write(baseDepthMap, "png", p.resolve("basedepth.png").toAbsolutePath().toFile());
+                    ImageIO.write(biomeDepth, "png", p.resolve("biomedepth.png").toAbsolutePath().toFile());
+                    ImageIO.write(biomeScale, "png", p.resolve("biomescale.png").toAbsolutePath().toFile());
+                    ImageIO.write(biomePeaks, "png", p.resolve("biomepeaks.png").toAbsolutePath().toFile());
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
         }
 
-        Path p = Paths.get(".", "run");
-        try {
-            ImageIO.write(biomeMap, "png", p.resolve("biomes.png").toAbsolutePath().toFile());
-            if (generateTerrainData) {
-                ImageIO.write(baseDepthMap, "png", p.resolve("basedepth.png").toAbsolutePath().toFile());
-                ImageIO.write(biomeDepth, "png", p.resolve("biomedepth.png").toAbsolutePath().toFile());
-                ImageIO.write(biomeScale, "png", p.resolve("biomescale.png").toAbsolutePath().toFile());
-                ImageIO.write(biomePeaks, "png", p.resolve("biomepeaks.png").toAbsolutePath().toFile());
+        private static int[] pixels(BufferedImage image) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+    }
+
+    /**
+     * Splits a rectangle of tiles in half along its longest side until single tiles are left.
+     */
+    private static final class SimulateTiles extends RecursiveAction {
+        private final Simulation simulation;
+        private final int minX;
+        private final int minZ;
+        private final int maxX;
+        private final int maxZ;
+
+        SimulateTiles(Simulation simulation, int minX, int minZ, int maxX, int maxZ) {
+            this.simulation = simulation;
+            this.minX = minX;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxZ = maxZ;
+        }
+
+        @Override
+        protected void compute() {
+            int width = maxX - minX;
+            int height = maxZ - minZ;
+            if (width == 1 && height == 1) {
+                simulation.simulateTile(minX, minZ);
+            } else if (width >= height) {
+                int mid = minX + width / 2;
+                invokeAll(new SimulateTiles(simulation, minX, minZ, mid, maxZ), new SimulateTiles(simulation, mid, minZ, maxX, maxZ));
+            } else {
+                int mid = minZ + height / 2;
+                invokeAll(new SimulateTiles(simulation, minX, minZ, maxX, mid), new SimulateTiles(simulation, minX, mid, maxX, maxZ));
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
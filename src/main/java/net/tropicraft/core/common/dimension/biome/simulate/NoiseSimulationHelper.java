@@ -7,6 +7,7 @@ import net.minecraft.util.Mth;
 import net.minecraft.world.level.biome.Climate;
 import net.minecraft.world.level.biome.TerrainShaper;
 import net.minecraft.world.level.levelgen.DensityFunction;
+import net.minecraft.world.level.levelgen.DensityFunctions;
 import net.minecraft.world.level.levelgen.NoiseGeneratorSettings;
 import net.minecraft.world.level.levelgen.NoiseRouter;
 import net.minecraft.world.level.levelgen.NoiseSettings;
@@ -14,6 +15,9 @@ import net.tropicraft.Constants;
 import net.tropicraft.core.common.dimension.TropicraftTerrainShaper;
 import net.tropicraft.core.common.dimension.noise.TropicraftNoiseGenSettings;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class NoiseSimulationHelper {
     private final Climate.Sampler sampler;
     private final TerrainShaper tropics;
@@ -77,6 +81,130 @@ public class NoiseSimulationHelper {
         return 2.147483647E9D;
     }
 
+    /**
+     * Creates a sampler that caches every 2D density function per column, so evaluating the same x/z
+     * column repeatedly only computes them once. The returned sampler is not thread safe; create one
+     * per worker.
+     */
+    public ColumnSampler columnSampler() {
+        return new ColumnSampler();
+    }
+
+    public final class ColumnSampler {
+        private final Climate.Sampler sampler;
+        private final DensityFunction initialDensityWithoutJaggedness;
+
+        private ColumnSampler() {
+            // Mapping rebuilds every tree, so shared subtrees like the continents are matched by value
+            Map<DensityFunction, DensityFunction> caches = new HashMap<>();
+            DensityFunction.Visitor visitor = function -> {
+                if (function instanceof DensityFunctions.Marker marker
+                        && (marker.type() == DensityFunctions.Marker.Type.FlatCache || marker.type() == DensityFunctions.Marker.Type.Cache2D)) {
+                    return caches.computeIfAbsent(marker, m -> new ColumnCache(marker.type(), marker.wrapped()));
+                }
+                return function;
+            };
+
+            Climate.Sampler base = NoiseSimulationHelper.this.sampler;
+            this.sampler = new Climate.Sampler(base.temperature().mapAll(visitor), base.humidity().mapAll(visitor), base.continentalness().mapAll(visitor),
+                    base.erosion().mapAll(visitor), base.depth().mapAll(visitor), base.weirdness().mapAll(visitor), base.spawnTarget());
+            this.initialDensityWithoutJaggedness = router.initialDensityWithoutJaggedness().mapAll(visitor);
+        }
+
+        public Climate.TargetPoint sample(int x, int y, int z) {
+            return this.sampler.sample(x, y, z);
+        }
+
+        /**
+         * @return The continentalness, erosion and weirdness at the given block, with the weirdness also
+         * used for the peaks and valleys
+         */
+        public TerrainShaper.Point buildPoint(int x, int y, int z) {
+            DensityFunction.SinglePointContext ctx = new DensityFunction.SinglePointContext(x, y, z);
+            return TerrainShaper.makePoint((float) sampler.continentalness().compute(ctx), (float) sampler.erosion().compute(ctx), (float) sampler.weirdness().compute(ctx));
+        }
+
+        public double peaksAndValleys(TerrainShaper.Point point) {
+            return TropicraftTerrainShaper.peaksAndValleys(point.weirdness());
+        }
+
+        public double prelimSurfaceLevel(int x, int z) {
+            NoiseSettings settings = noisegen.noiseSettings();
+            for(int i = settings.getMinCellY() + settings.getCellCountY(); i >= settings.getMinCellY(); --i) {
+                int j = i * settings.getCellHeight();
+                double d1 = initialDensityWithoutJaggedness.compute(new DensityFunction.SinglePointContext(x, j, z)) + -0.703125D;
+                double d2 = Mth.clamp(d1, -64.0D, 64.0D);
+                d2 = applySlide(settings, d2, (double)j);
+                if (d2 > 0.390625D) {
+                    return (double)j;
+                }
+            }
+
+            return 2.147483647E9D;
+        }
+    }
+
+    /**
+     * Remembers the value of a 2D density function for the last column it was sampled in.
+     * Like the caches in NoiseChunk, it encodes as the marker it replaced.
+     */
+    private static final class ColumnCache implements DensityFunctions.MarkerOrMarked {
+        private final DensityFunctions.Marker.Type type;
+        private final DensityFunction wrapped;
+        private boolean valid;
+        private int lastX;
+        private int lastZ;
+        private double lastValue;
+
+        ColumnCache(DensityFunctions.Marker.Type type, DensityFunction wrapped) {
+            this.type = type;
+            this.wrapped = wrapped;
+        }
+
+        @Override
+        public DensityFunctions.Marker.Type type() {
+            return type;
+        }
+
+        @Override
+        public DensityFunction wrapped() {
+            return wrapped;
+        }
+
+        @Override
+        public double compute(FunctionContext ctx) {
+            int x = ctx.blockX();
+            int z = ctx.blockZ();
+            if (!valid || x != lastX || z != lastZ) {
+                lastValue = wrapped.compute(ctx);
+                lastX = x;
+                lastZ = z;
+                valid = true;
+            }
+            return lastValue;
+        }
+
+        @Override
+        public void fillArray(double[] array, ContextProvider provider) {
+            provider.fillAllDirectly(array, this);
+        }
+
+        @Override
+        public DensityFunction mapAll(Visitor visitor) {
+            return visitor.apply(new ColumnCache(type, wrapped.mapAll(visitor)));
+        }
+
+        @Override
+        public double minValue() {
+            return wrapped.minValue();
+        }
+
+        @Override
+        public double maxValue() {
+            return wrapped.maxValue();
+        }
+    }
+
     private static double applySlide(NoiseSettings p_209499_, double p_209500_, double p_209501_) {
         double d0 = (double)((int)p_209501_ / p_209499_.getCellHeight() - p_209499_.getMinCellY());
         p_209500_ = p_209499_.topSlideSettings().applySlide(p_209500_, (double)p_209499_.getCellCountY() - d0);
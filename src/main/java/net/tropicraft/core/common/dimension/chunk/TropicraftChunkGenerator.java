@@ -23,6 +23,7 @@ import net.minecraft.world.level.levelgen.synth.NormalNoise;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.tropicraft.Constants;
+import net.tropicraft.core.common.dimension.biome.TropicraftBiomeSource;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -50,6 +51,9 @@ public class TropicraftChunkGenerator extends NoiseBasedChunkGenerator {
         this.parameters = registry;
         this.seed = seed;
         this.volcano = new VolcanoGenerator(seed, biomes, this);
+        if (biomes instanceof TropicraftBiomeSource tropicsBiomes) {
+            tropicsBiomes.setCachedSampler(this.climateSampler());
+        }
     }
 
     public static void register() {
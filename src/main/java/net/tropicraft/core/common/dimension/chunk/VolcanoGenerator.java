@@ -8,10 +8,11 @@ import net.minecraft.ChatFormatting;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
 import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
 import net.minecraft.network.chat.*;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.Mth;
+import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeSource;
 import net.minecraft.world.level.block.Block;
@@ -19,6 +20,8 @@ import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkGenerator;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
 import net.minecraft.world.level.levelgen.Heightmap;
 import net.minecraft.world.level.levelgen.WorldgenRandom;
 import net.minecraftforge.event.server.ServerStartingEvent;
@@ -31,8 +34,12 @@ import net.tropicraft.core.common.dimension.biome.TropicraftBiomes;
 import net.tropicraft.core.common.dimension.noise.NoiseModule;
 import net.tropicraft.core.common.dimension.noise.generator.Billowed;
 
+import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 @Mod.EventBusSubscriber(modid = Constants.MODID)
@@ -47,8 +54,8 @@ public class VolcanoGenerator {
 
     private final long worldSeed;
 
-    private final static int MAX_RADIUS = 65;
-    private final static int MIN_RADIUS = 45;
+    final static int MAX_RADIUS = 65;
+    final static int MIN_RADIUS = 45;
     private final static int CALDERA_CUTOFF = 194; //The Y level where if the height of the volcano would pass becomes the caldera
     public final static int VOLCANO_TOP = CALDERA_CUTOFF - 7; //The Y level cut off of the sides of the volcano
     public final static int VOLCANO_CRUST = VOLCANO_TOP - 3; //The Y level where the crust of the volcano generates
@@ -65,6 +72,10 @@ public class VolcanoGenerator {
 
     private static final int CHUNK_RANGE = MAX_RADIUS >> 4;
 
+    private static final int REGION_SIZE_CHUNKS = 64; // was 32
+    private static final int REGION_OFFSET_CHUNKS = 16; // was 8
+    private static final int MAX_CACHED_REGIONS = 4096;
+
     private final static Supplier<BlockState> VOLCANO_BLOCK = TropicraftBlocks.CHUNK.lazyMap(Block::defaultBlockState);
     private final static Supplier<BlockState> LAVA_BLOCK = () -> Blocks.LAVA.defaultBlockState();
     private final static Supplier<BlockState> SAND_BLOCK = TropicraftBlocks.VOLCANIC_SAND.lazyMap(b -> b.defaultBlockState().setValue(VolcanicSandBlock.HOT, true));
@@ -72,6 +83,12 @@ public class VolcanoGenerator {
     private final BiomeSource biomeSource;
     private final ChunkGenerator chunkGenerator;
 
+    /**
+     * Every region cell holds exactly one volcano, so its placement is resolved once and looked up
+     * from here by chunk generation, height queries and /locate alike.
+     */
+    private final Map<Long, VolcanoPlacement> placementIndex = new ConcurrentHashMap<>();
+
     public VolcanoGenerator(long worldSeed, BiomeSource biomeSource, ChunkGenerator chunkGenerator) {
         this.worldSeed = worldSeed;
         this.biomeSource = biomeSource;
@@ -97,7 +114,7 @@ public class VolcanoGenerator {
 
                             VolcanoGenerator volcanoGen = tropicsGenerator.getVolcano();
 
-                            BlockPos volcanoPos = volcanoGen.getVolcanoNear(source.getLevel(), pos.getX() >> 4, pos.getZ() >> 4, 100);
+                            BlockPos volcanoPos = volcanoGen.getVolcanoNear(pos.getX() >> 4, pos.getZ() >> 4, 100);
                             if (volcanoPos == null) {
                                 throw new SimpleCommandExceptionType(new TranslatableComponent("commands.locate.failed")).create();
                             } else {
@@ -120,13 +137,13 @@ public class VolcanoGenerator {
     }
 
     public ChunkAccess generate(int chunkX, int chunkZ, ChunkAccess chunk, WorldgenRandom random) {
-        BlockPos volcanoCoords = getVolcanoNear(this.biomeSource, this.worldSeed, chunkX, chunkZ, 0);
+        VolcanoPlacement volcano = getPlacementNear(chunkX, chunkZ, 0);
 
-        if (volcanoCoords == null) {
+        if (volcano == null) {
             return chunk;
         }
 
-        int HEIGHT_OFFSET = VolcanoGenerator.getHeightOffsetForBiome(volcanoCoords.getY());
+        int HEIGHT_OFFSET = volcano.heightOffset();
         int calderaCutoff = CALDERA_CUTOFF + HEIGHT_OFFSET;
         int lavaLevel = LAVA_LEVEL + HEIGHT_OFFSET;
         int volcanoTop = VOLCANO_TOP + HEIGHT_OFFSET;
@@ -135,69 +152,91 @@ public class VolcanoGenerator {
         chunkX *= CHUNK_SIZE_X;
         chunkZ *= CHUNK_SIZE_Z;
 
-        int volcCenterX = volcanoCoords.getX();
-        int volcCenterZ = volcanoCoords.getZ();
+        int volcCenterX = volcano.centerX();
+        int volcCenterZ = volcano.centerZ();
 
-        long seed = getPositionSeed(volcCenterX, volcCenterZ);
-        Random rand = new Random(seed);
+        Random rand = volcano.createRandom();
 
-        int radiusX = rand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
-        int radiusZ = rand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
+        int radiusX = volcano.radiusX();
+        int radiusZ = volcano.radiusZ();
 
-        NoiseModule volcNoise = getNoise(seed);
+        NoiseModule volcNoise = volcano.noise();
+
+        // nothing to do if this chunk lies entirely outside the volcano ellipse
+        if (chunkX + 15 <= volcCenterX - radiusX || chunkX >= volcCenterX + radiusX || chunkZ + 15 <= volcCenterZ - radiusZ || chunkZ >= volcCenterZ + radiusZ) {
+            return chunk;
+        }
 
         BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
 
         // if this chunk contains the volcano center
-        if (volcanoCoords.getX() <= chunkX + 15 && volcanoCoords.getX() >= chunkX && volcanoCoords.getZ() <= chunkZ + 15 && volcanoCoords.getZ() >= chunkZ) {
-            BlockPos volcanoBlockPos = new BlockPos(volcanoCoords.getX() & 15, 1, volcanoCoords.getZ() & 15);
+        if (volcCenterX <= chunkX + 15 && volcCenterX >= chunkX && volcCenterZ <= chunkZ + 15 && volcCenterZ >= chunkZ) {
+            BlockPos volcanoBlockPos = new BlockPos(volcCenterX & 15, 1, volcCenterZ & 15);
             chunk.setBlockState(volcanoBlockPos, TropicraftBlocks.VOLCANO.get().defaultBlockState(), false);
         }
 
+        BlockState volcanoBlock = VOLCANO_BLOCK.get();
+        BlockState sandBlock = SAND_BLOCK.get();
+        BlockState lavaBlock = LAVA_BLOCK.get();
+        BlockState airBlock = Blocks.AIR.defaultBlockState();
+
+        double[] noiseZ = new double[CHUNK_SIZE_Z];
+        for (int z = 0; z < CHUNK_SIZE_Z; z++) {
+            noiseZ[z] = getNoiseCoord((z + chunkZ) - volcCenterZ);
+        }
+        double[] noiseRow = new double[CHUNK_SIZE_Z];
+
         for (int x = 0; x < CHUNK_SIZE_X; x++) {
+            int relativeX = ((x + chunkX) - volcCenterX);
+            volcNoise.fill2d(noiseRow, getNoiseCoord(relativeX), noiseZ);
+
             for (int z = 0; z < CHUNK_SIZE_Z; z++) {
 
-                int relativeX = ((x + chunkX) - volcCenterX);
                 int relativeZ = ((z + chunkZ) - volcCenterZ);
 
-                double volcanoHeight = getVolcanoHeight(relativeX, relativeZ, radiusX, radiusZ, volcNoise);
                 float distanceSquared = getDistanceSq(relativeX, relativeZ, radiusX, radiusZ);
+                if (distanceSquared >= 1) {
+                    continue;
+                }
+
+                double volcanoHeight = getVolcanoHeight(distanceSquared, noiseRow[z]);
 
                 int groundHeight = chunk.getHeight(Heightmap.Types.OCEAN_FLOOR_WG, x, z);
                 groundHeight = Math.min(groundHeight, lavaLevel - 3);
 
-                if (distanceSquared < 1) {
-                    for (int y = CHUNK_SIZE_Y; y > 0; y--) {
-                        pos.set(x, y, z);
-
-                        if (volcanoHeight + groundHeight < calderaCutoff) {
-                            if (volcanoHeight + groundHeight <= volcanoTop) {
-                                if (y <= volcanoHeight + groundHeight) {
-                                    if (y > groundHeight) {
-                                        this.placeBlock(pos, VOLCANO_BLOCK, chunk);
-                                    } else if (y > groundHeight - 2) {
-                                        this.placeBlock(pos, SAND_BLOCK, chunk);
-                                    }
-                                }
-                            } else if (y == volcanoCrust - 1) {
-                                if (random.nextInt(3) != 0) {
-                                    this.placeBlock(pos, VOLCANO_BLOCK, chunk);
-                                }
-                            } else if (y <= volcanoTop) {
-                                placeBlock(pos, VOLCANO_BLOCK, chunk);
-                            }
+                double surfaceHeight = volcanoHeight + groundHeight;
+                int columnTop;
+
+                // Each run below covers the same blocks the old top-down per-block loop did, and
+                // the random rolls happen at the same point in the column, so output is unchanged.
+                if (surfaceHeight < calderaCutoff) {
+                    if (surfaceHeight <= volcanoTop) {
+                        int top = Mth.floor(surfaceHeight);
+                        fillColumn(chunk, pos, x, z, groundHeight + 1, top, volcanoBlock);
+                        fillColumn(chunk, pos, x, z, groundHeight - 1, Math.min(groundHeight, top), sandBlock);
+                        columnTop = top;
+                    } else {
+                        int crustGap = volcanoCrust - 1;
+                        if (crustGap >= 1 && crustGap <= CHUNK_SIZE_Y && random.nextInt(3) == 0) {
+                            fillColumn(chunk, pos, x, z, crustGap + 1, volcanoTop, volcanoBlock);
+                            fillColumn(chunk, pos, x, z, 1, crustGap - 1, volcanoBlock);
                         } else {
-                            // Flat area on top of the volcano
-                            if (y == volcanoCrust && rand.nextInt(CRUST_HOLE_CHANCE) != 0) {
-                                placeBlock(pos, VOLCANO_BLOCK, chunk);
-                            } else if (y <= lavaLevel) {
-                                placeBlock(pos, LAVA_BLOCK, chunk);
-                            } else {
-                                placeBlock(pos, Blocks.AIR::defaultBlockState, chunk);
-                            }
+                            fillColumn(chunk, pos, x, z, 1, volcanoTop, volcanoBlock);
                         }
+                        columnTop = volcanoTop;
                     }
+                } else {
+                    // Flat area on top of the volcano
+                    fillColumn(chunk, pos, x, z, lavaLevel + 1, CHUNK_SIZE_Y, airBlock);
+                    fillColumn(chunk, pos, x, z, 1, lavaLevel, lavaBlock);
+                    if (volcanoCrust >= 1 && volcanoCrust <= CHUNK_SIZE_Y && rand.nextInt(CRUST_HOLE_CHANCE) != 0) {
+                        fillColumn(chunk, pos, x, z, volcanoCrust, volcanoCrust, volcanoBlock);
+                    }
+                    columnTop = CHUNK_SIZE_Y;
                 }
+
+                updateHeightmap(chunk, Heightmap.Types.OCEAN_FLOOR_WG, pos, x, z, columnTop);
+                updateHeightmap(chunk, Heightmap.Types.WORLD_SURFACE_WG, pos, x, z, columnTop);
             }
         }
 
@@ -236,28 +275,17 @@ public class VolcanoGenerator {
      */
     // TODO Fix the above issues
     public int getVolcanoHeight(int groundHeight, int x, int z) {
-        BlockPos volcanoCoords = getVolcanoNear(this.biomeSource, this.worldSeed, x >> 4, z >> 4, 0);
-        if (volcanoCoords == null) {
+        VolcanoPlacement volcano = getPlacementNear(x >> 4, z >> 4, 0);
+        if (volcano == null) {
             return -1;
         }
 
-        int volcCenterX = volcanoCoords.getX();
-        int volcCenterZ = volcanoCoords.getZ();
+        int relativeX = x - volcano.centerX();
+        int relativeZ = z - volcano.centerZ();
 
-        long seed = getPositionSeed(volcCenterX, volcCenterZ);
-        Random rand = new Random(seed);
+        double ret = getVolcanoHeight(relativeX, relativeZ, volcano.radiusX(), volcano.radiusZ(), volcano.noise());
 
-        int radiusX = rand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
-        int radiusZ = rand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
-
-        NoiseModule volcNoise = getNoise(seed);
-
-        int relativeX = x - volcCenterX;
-        int relativeZ = z - volcCenterZ;
-
-        double ret = getVolcanoHeight(relativeX, relativeZ, radiusX, radiusZ, volcNoise);
-
-        int heightOffset = getHeightOffsetForBiome(volcanoCoords.getY());
+        int heightOffset = volcano.heightOffset();
         int lavaLevel = LAVA_LEVEL + heightOffset;
         int volcanoCrust = VOLCANO_CRUST + heightOffset;
         groundHeight = Math.min(groundHeight, lavaLevel - 3);
@@ -271,15 +299,92 @@ public class VolcanoGenerator {
 
     private double getVolcanoHeight(float relativeX, float relativeZ, float radiusX, float radiusZ, NoiseModule volcNoise) {
         float distanceSquared = getDistanceSq(relativeX, relativeZ, radiusX, radiusZ);
+        return getVolcanoHeight(distanceSquared, volcNoise.getNoise(getNoiseCoord(relativeX), getNoiseCoord(relativeZ)));
+    }
 
-        //float perlin = (float)volcNoise.getNoise(relativeX * 0.05 + 0.0001, relativeZ * 0.05 + 0.0001) + 1;
-        float perlin = (float) volcNoise.getNoise(relativeX * 0.21 + 0.01, relativeZ * 0.21 + 0.01) + 1;
+    private static double getNoiseCoord(float relative) {
+        //return relative * 0.05 + 0.0001;
+        return relative * 0.21 + 0.01;
+    }
+
+    private double getVolcanoHeight(float distanceSquared, double noise) {
+        float perlin = (float) noise + 1;
 
         //double volcanoHeight = steepnessMod / (distanceSquared) * perlin - steepnessMod - 2;
         double steepness = 10.2;
         return steepness / distanceSquared * perlin - steepness - 2;
     }
 
+    /**
+     * Fills the inclusive y range of a single column straight into the chunk sections, bypassing
+     * the per-block heightmap bookkeeping of {@link ChunkAccess#setBlockState}. Each section is
+     * locked once per run, and the heightmaps must be brought up to date afterwards through
+     * {@link #updateHeightmap}.
+     */
+    private static void fillColumn(ChunkAccess chunk, BlockPos.MutableBlockPos pos, int x, int z, int minY, int maxY, BlockState state) {
+        minY = Math.max(Math.max(minY, 1), chunk.getMinBuildHeight());
+        maxY = Math.min(Math.min(maxY, CHUNK_SIZE_Y), chunk.getMaxBuildHeight() - 1);
+
+        boolean air = state.isAir();
+        ProtoChunk lightChunk = state.getLightEmission() != 0 && chunk instanceof ProtoChunk proto ? proto : null;
+
+        int y = maxY;
+        while (y >= minY) {
+            int sectionIndex = chunk.getSectionIndex(y);
+            LevelChunkSection section = chunk.getSection(sectionIndex);
+            int bottom = Math.max(minY, SectionPos.sectionToBlockCoord(chunk.getSectionYFromSectionIndex(sectionIndex)));
+
+            // placing air in an empty section is a no-op, so skip it entirely
+            if (!air || !section.hasOnlyAir()) {
+                section.acquire();
+                try {
+                    for (int sectionY = y; sectionY >= bottom; sectionY--) {
+                        section.setBlockState(x, sectionY & 15, z, state, false);
+                    }
+                } finally {
+                    section.release();
+                }
+            }
+
+            if (lightChunk != null) {
+                for (int lightY = y; lightY >= bottom; lightY--) {
+                    lightChunk.addLight(pos.set(chunk.getPos().getBlockX(x), lightY, chunk.getPos().getBlockZ(z)));
+                }
+            }
+
+            y = bottom - 1;
+        }
+    }
+
+    /**
+     * Brings a heightmap column up to date once all runs for that column have been written.
+     *
+     * @param columnTop The highest y that may have been written in this column
+     */
+    private static void updateHeightmap(ChunkAccess chunk, Heightmap.Types type, BlockPos.MutableBlockPos pos, int x, int z, int columnTop) {
+        Heightmap heightmap = chunk.getOrCreateHeightmapUnprimed(type);
+        Predicate<BlockState> isOpaque = type.isOpaque();
+
+        // raise the heightmap to the highest matching block we wrote, if it is above the current height
+        int height = heightmap.getFirstAvailable(x, z);
+        for (int y = Math.min(columnTop, chunk.getMaxBuildHeight() - 1); y >= height; y--) {
+            BlockState state = chunk.getBlockState(pos.set(x, y, z));
+            if (isOpaque.test(state)) {
+                heightmap.update(x, y, z, state);
+                break;
+            }
+        }
+
+        // if the block the heightmap rests on was replaced, let the heightmap search downwards for the new top
+        height = heightmap.getFirstAvailable(x, z);
+        if (height > chunk.getMinBuildHeight()) {
+            BlockState top = chunk.getBlockState(pos.set(x, height - 1, z));
+            if (!isOpaque.test(top)) {
+                heightmap.update(x, height - 1, z, top);
+            }
+        }
+    }
+
     public void placeBlock(BlockPos pos, Supplier<BlockState> blockState, ChunkAccess chunk) {
         chunk.setBlockState(pos, blockState.get(), false);
     }
@@ -290,82 +395,104 @@ public class VolcanoGenerator {
 
     /**
      * Method to choose spawn locations for volcanos (borrowed from village gen)
-     * Rarity is determined by the numChunks/offsetChunks vars (smaller numbers
+     * Rarity is determined by the REGION_SIZE_CHUNKS/REGION_OFFSET_CHUNKS vars (smaller numbers
      * mean more spawning)
      */
-    public int canGenVolcanoAtCoords(BiomeSource biomeSource, long worldSeed, int chunkX, int chunkZ) {
-        byte numChunks = 64; // was 32
-        byte offsetChunks = 16; // was 8
-        int oldi = chunkX;
-        int oldj = chunkZ;
-
-        if (chunkX < 0) {
-            chunkX -= numChunks - 1;
-        }
-
-        if (chunkZ < 0) {
-            chunkZ -= numChunks - 1;
-        }
-
-        int randX = chunkX / numChunks;
-        int randZ = chunkZ / numChunks;
-        long seed = (long) randX * 341873128712L + (long) randZ * 132897987541L + worldSeed + (long) 4291726;
-        Random rand = new Random(seed);
-        randX *= numChunks;
-        randZ *= numChunks;
-        randX += rand.nextInt(numChunks - offsetChunks);
-        randZ += rand.nextInt(numChunks - offsetChunks);
-
-        if (oldi == randX && oldj == randZ) {
-            if (hasAllBiomes(biomeSource, oldi * 16 + 8, 0, oldj * 16 + 8, volcanoSpawnBiomesLand)) {
-                return SURFACE_BIOME;
-            }
-            if (hasAllBiomes(biomeSource, oldi * 16 + 8, 0, oldj * 16 + 8, volcanoSpawnBiomesOcean)) {
-                return OCEAN_BIOME;
-            }
-
-            return SURFACE_BIOME;
+    public int canGenVolcanoAtCoords(int chunkX, int chunkZ) {
+        VolcanoPlacement volcano = getPlacement(Math.floorDiv(chunkX, REGION_SIZE_CHUNKS), Math.floorDiv(chunkZ, REGION_SIZE_CHUNKS));
+        if (volcano.chunkX() == chunkX && volcano.chunkZ() == chunkZ) {
+            return volcano.biome();
         }
-
         return 0;
     }
 
     /**
      * Returns the coordinates of a volcano if it should be spawned near
      * this chunk, otherwise returns null.
-     * The posY of the returned object should be used as the volcano radius
+     * The posY of the returned object should be used as the volcano biome type
      */
-    public BlockPos getVolcanoNear(ServerLevel world, int chunkX, int chunkZ, int maxRadius) {
-        return getVolcanoNear(world.getChunkSource().getGenerator().getBiomeSource(), world.getSeed(), chunkX, chunkZ, maxRadius);
+    @Nullable
+    public BlockPos getVolcanoNear(int chunkX, int chunkZ, int maxRadius) {
+        VolcanoPlacement volcano = getPlacementNear(chunkX, chunkZ, maxRadius);
+        return volcano != null ? volcano.pos() : null;
     }
 
     /**
-     * Returns the coordinates of a volcano if it should be spawned near
-     * this chunk, otherwise returns null.
-     * The posY of the returned object should be used as the volcano radius
+     * Returns the placement of the volcano closest to this chunk (by chunk ring distance) that lies
+     * within the search radius, otherwise returns null. Ties are resolved the same way as the old
+     * ring-by-ring chunk scan: lowest x offset first, then lowest z offset.
      */
-    public BlockPos getVolcanoNear(BiomeSource biomeSource, long worldSeed, int chunkX, int chunkZ, int maxRadius) {
+    @Nullable
+    public VolcanoPlacement getPlacementNear(int chunkX, int chunkZ, int maxRadius) {
         maxRadius = maxRadius + CHUNK_RANGE;
 
-        for (int radius = 0; radius <= maxRadius; radius++) {
-            for (int offsetX = -radius; offsetX <= radius; offsetX++) {
-                boolean edgeX = offsetX == -radius || offsetX == radius;
-                for (int offsetZ = -radius; offsetZ <= radius; offsetZ++) {
-                    boolean edgeZ = offsetZ == -radius || offsetZ == radius;
-                    if (edgeX || edgeZ) {
-                        int x = chunkX + offsetX;
-                        int z = chunkZ + offsetZ;
-
-                        int biome = canGenVolcanoAtCoords(biomeSource, worldSeed, x, z);
-                        if (biome != 0) {
-                            return new BlockPos((x << 4) + 8, biome, (z << 4) + 8);
-                        }
-                    }
+        int minRegionX = Math.floorDiv(chunkX - maxRadius, REGION_SIZE_CHUNKS);
+        int maxRegionX = Math.floorDiv(chunkX + maxRadius, REGION_SIZE_CHUNKS);
+        int minRegionZ = Math.floorDiv(chunkZ - maxRadius, REGION_SIZE_CHUNKS);
+        int maxRegionZ = Math.floorDiv(chunkZ + maxRadius, REGION_SIZE_CHUNKS);
+
+        VolcanoPlacement closest = null;
+        int closestRadius = Integer.MAX_VALUE;
+        int closestOffsetX = 0;
+        int closestOffsetZ = 0;
+
+        for (int regionX = minRegionX; regionX <= maxRegionX; regionX++) {
+            for (int regionZ = minRegionZ; regionZ <= maxRegionZ; regionZ++) {
+                VolcanoPlacement volcano = getPlacement(regionX, regionZ);
+                int offsetX = volcano.chunkX() - chunkX;
+                int offsetZ = volcano.chunkZ() - chunkZ;
+                int radius = Math.max(Math.abs(offsetX), Math.abs(offsetZ));
+                if (radius > maxRadius) {
+                    continue;
                 }
+
+                if (radius < closestRadius
+                        || (radius == closestRadius && (offsetX < closestOffsetX || (offsetX == closestOffsetX && offsetZ < closestOffsetZ)))) {
+                    closest = volcano;
+                    closestRadius = radius;
+                    closestOffsetX = offsetX;
+                    closestOffsetZ = offsetZ;
+                }
+            }
+        }
+
+        return closest;
+    }
+
+    private VolcanoPlacement getPlacement(int regionX, int regionZ) {
+        long key = ChunkPos.asLong(regionX, regionZ);
+        VolcanoPlacement volcano = placementIndex.get(key);
+        if (volcano == null) {
+            if (placementIndex.size() >= MAX_CACHED_REGIONS) {
+                placementIndex.clear();
             }
+            // computeIfAbsent would hold the bin lock across a biome lookup; racing threads compute the same value anyway
+            volcano = computePlacement(regionX, regionZ);
+            placementIndex.putIfAbsent(key, volcano);
         }
+        return volcano;
+    }
+
+    private VolcanoPlacement computePlacement(int regionX, int regionZ) {
+        Random rand = new Random(getPositionSeed(regionX, regionZ));
+        int chunkX = regionX * REGION_SIZE_CHUNKS + rand.nextInt(REGION_SIZE_CHUNKS - REGION_OFFSET_CHUNKS);
+        int chunkZ = regionZ * REGION_SIZE_CHUNKS + rand.nextInt(REGION_SIZE_CHUNKS - REGION_OFFSET_CHUNKS);
+
+        int centerX = (chunkX << 4) + 8;
+        int centerZ = (chunkZ << 4) + 8;
+
+        int biome = SURFACE_BIOME;
+        if (!hasAllBiomes(this.biomeSource, centerX, 0, centerZ, volcanoSpawnBiomesLand)
+                && hasAllBiomes(this.biomeSource, centerX, 0, centerZ, volcanoSpawnBiomesOcean)) {
+            biome = OCEAN_BIOME;
+        }
+
+        long seed = getPositionSeed(centerX, centerZ);
+        Random radiusRand = new Random(seed);
+        int radiusX = radiusRand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
+        int radiusZ = radiusRand.nextInt(MAX_RADIUS - MIN_RADIUS) + MIN_RADIUS;
 
-        return null;
+        return new VolcanoPlacement(centerX, centerZ, biome, radiusX, radiusZ, seed, getNoise(seed));
     }
 
     public static int getHeightOffsetForBiome(int biome) {
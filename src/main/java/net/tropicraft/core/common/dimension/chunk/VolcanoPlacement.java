@@ -0,0 +1,50 @@
+package net.tropicraft.core.common.dimension.chunk;
+
+import net.minecraft.core.BlockPos;
+import net.tropicraft.core.common.dimension.noise.NoiseModule;
+
+import java.util.Random;
+
+/**
+ * The fully resolved placement of a single volcano: everything {@link VolcanoGenerator} needs to
+ * generate or measure it, derived once per region cell instead of once per chunk or column.
+ *
+ * @param centerX Block x position of the volcano center
+ * @param centerZ Block z position of the volcano center
+ * @param biome Either {@link VolcanoGenerator#SURFACE_BIOME} or {@link VolcanoGenerator#OCEAN_BIOME}
+ * @param radiusX Radius of the volcano ellipse along the x axis
+ * @param radiusZ Radius of the volcano ellipse along the z axis
+ * @param seed The position seed the radii and noise were derived from
+ * @param noise The noise module shaping the volcano slopes
+ */
+public record VolcanoPlacement(int centerX, int centerZ, int biome, int radiusX, int radiusZ, long seed, NoiseModule noise) {
+    public int chunkX() {
+        return centerX >> 4;
+    }
+
+    public int chunkZ() {
+        return centerZ >> 4;
+    }
+
+    public int heightOffset() {
+        return VolcanoGenerator.getHeightOffsetForBiome(biome);
+    }
+
+    /**
+     * @return The volcano center, with the biome type stored in the y coordinate
+     */
+    public BlockPos pos() {
+        return new BlockPos(centerX, biome, centerZ);
+    }
+
+    /**
+     * @return A {@link Random} positioned just after the radius rolls, matching the sequence the
+     * generator has always used for the crust holes.
+     */
+    public Random createRandom() {
+        Random rand = new Random(seed);
+        rand.nextInt(VolcanoGenerator.MAX_RADIUS - VolcanoGenerator.MIN_RADIUS);
+        rand.nextInt(VolcanoGenerator.MAX_RADIUS - VolcanoGenerator.MIN_RADIUS);
+        return rand;
+    }
+}
@@ -2,19 +2,25 @@ package net.tropicraft.core.common.dimension.noise;
 
 import java.util.Random;
 
+/**
+ * Seeded gradient noise. Instances are immutable once constructed, so they can be shared by whatever
+ * holds on to the noise module they belong to.
+ */
 public class FishyNoise {
 
-	int[] perm = new int[512];
+	// Gradient tables are flattened so a lookup is a single array access: [x0, y0, x1, y1, ...]
+	private static final double[] GRAD_2D = new double[] {1, 0, .9239, .3827, .707107, 0.707107, .3827, .9239,
+			0, 1, -.3827, .9239, -.707107, 0.707107, -.9239, .3827,
+			-1, 0, -.9239, -.3827, -.707107, -0.707107, -.3827, -.9239,
+			0, -1, .3827, -.9239, .707107, -0.707107, .9239, -.3827};
 
-	public double[][] grad2d = new double[][] {{1, 0}, {.9239, .3827}, {.707107, 0.707107}, {.3827, .9239},
-			{0, 1}, {-.3827, .9239}, {-.707107, 0.707107},{-.9239, .3827},
-			{-1, 0}, {-.9239, -.3827}, {-.707107, -0.707107}, {-.3827, -.9239},
-			{0, -1}, {.3827, -.9239}, {.707107, -0.707107},{.9239, -.3827}};
+	// [x0, y0, z0, x1, y1, z1, ...]
+	private static final int[] GRAD_3D = new int[] {1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1, 0,
+			1, 0, 1, -1, 0, 1, 1, 0, -1, -1, 0, -1,
+			0, 1, 1, 0, -1, 1, 0, 1, -1, 0, -1, -1,
+			1, 1, 0, -1, 1, 0, 0, -1, 1, 0, -1, -1};
 
-	public int[][] grad3d = new int[][] {{1, 1, 0}, {-1, 1, 0}, {1, -1, 0}, {-1, -1, 0},
-			{1, 0, 1}, {-1, 0, 1}, {1, 0, -1}, {-1, 0, -1},
-			{0, 1, 1}, {0, -1, 1}, {0, 1, -1}, {0, -1, -1},
-			{1, 1, 0}, {-1, 1, 0}, {0, -1, 1}, {0, -1, -1}};
+	private final int[] perm = new int[512];
 
 	public FishyNoise(long seed)
 	{
@@ -53,14 +59,16 @@ public class FishyNoise {
 		return n * n * n * (n * (n * 6 - 15) + 10);
 	}
 
-	private static double dot2(double[] grad2, double x, double y)
+	private static double dot2(int grad, double x, double y)
 	{
-		return grad2[0] * x + grad2[1] * y;
+		final int i = grad << 1;
+		return FishyNoise.GRAD_2D[i] * x + FishyNoise.GRAD_2D[i + 1] * y;
 	}
 
-	private static double dot3(int[] grad3, double x, double y, double z)
+	private static double dot3(int grad, double x, double y, double z)
 	{
-		return grad3[0] * x + grad3[1] * y + grad3[2] * z;
+		final int i = grad * 3;
+		return FishyNoise.GRAD_3D[i] * x + FishyNoise.GRAD_3D[i + 1] * y + FishyNoise.GRAD_3D[i + 2] * z;
 	}
 
 	public double noise2d(double x, double y)
@@ -75,16 +83,55 @@ public class FishyNoise {
 		final double u = FishyNoise.fade(x);
 		final double v = FishyNoise.fade(y);
 
-		final double grad00 = FishyNoise.dot2(this.grad2d[this.perm[largeX + this.perm[largeY]] & 15], x, y);
-		final double grad01 = FishyNoise.dot2(this.grad2d[this.perm[largeX + this.perm[largeY + 1]] & 15], x, y - 1);
-		final double grad11 = FishyNoise.dot2(this.grad2d[this.perm[largeX + 1 + this.perm[largeY + 1]] & 15], x - 1, y - 1);
-		final double grad10 = FishyNoise.dot2(this.grad2d[this.perm[largeX + 1 + this.perm[largeY]]  & 15], x - 1, y);
+		final double grad00 = FishyNoise.dot2(this.perm[largeX + this.perm[largeY]] & 15, x, y);
+		final double grad01 = FishyNoise.dot2(this.perm[largeX + this.perm[largeY + 1]] & 15, x, y - 1);
+		final double grad11 = FishyNoise.dot2(this.perm[largeX + 1 + this.perm[largeY + 1]] & 15, x - 1, y - 1);
+		final double grad10 = FishyNoise.dot2(this.perm[largeX + 1 + this.perm[largeY]] & 15, x - 1, y);
 
 		final double lerpX0 = FishyNoise.lerp(grad00, grad10, u);
 		final double lerpX1 = FishyNoise.lerp(grad01, grad11, u);
 		return FishyNoise.lerp(lerpX0, lerpX1, v);
 	}
 
+	/**
+	 * Bulk form of {@link #noise2d(double, double)}: samples {@code noise2d(x, ys[n] * yScale + yOffset)}
+	 * into {@code out[n]}. The gradient lookups are only redone when the sample moves into a new
+	 * lattice cell, so densely sampled rows avoid most of the permutation table accesses.
+	 */
+	public void fill2d(double[] out, double x, double[] ys, double yScale, double yOffset)
+	{
+		int largeX = FishyNoise.fastFloor(x);
+		x -= largeX;
+		largeX = largeX & 255;
+
+		final double u = FishyNoise.fade(x);
+
+		int cellY = -1;
+		int grad00 = 0, grad01 = 0, grad11 = 0, grad10 = 0;
+		for (int n = 0; n < ys.length; n++)
+		{
+			double y = ys[n] * yScale + yOffset;
+			int largeY = FishyNoise.fastFloor(y);
+			y -= largeY;
+			largeY = largeY & 255;
+
+			if (largeY != cellY)
+			{
+				cellY = largeY;
+				grad00 = this.perm[largeX + this.perm[largeY]] & 15;
+				grad01 = this.perm[largeX + this.perm[largeY + 1]] & 15;
+				grad11 = this.perm[largeX + 1 + this.perm[largeY + 1]] & 15;
+				grad10 = this.perm[largeX + 1 + this.perm[largeY]] & 15;
+			}
+
+			final double v = FishyNoise.fade(y);
+
+			final double lerpX0 = FishyNoise.lerp(FishyNoise.dot2(grad00, x, y), FishyNoise.dot2(grad10, x - 1, y), u);
+			final double lerpX1 = FishyNoise.lerp(FishyNoise.dot2(grad01, x, y - 1), FishyNoise.dot2(grad11, x - 1, y - 1), u);
+			out[n] = FishyNoise.lerp(lerpX0, lerpX1, v);
+		}
+	}
+
 	public double noise3d(double x, double y, double z)
 	{
 		int unitX = FishyNoise.fastFloor(x);
@@ -103,14 +150,14 @@ public class FishyNoise {
 		final double v = FishyNoise.fade(y);
 		final double w = FishyNoise.fade(z);
 
-		final double grad000 = FishyNoise.dot3(this.grad3d[this.perm[unitX + this.perm[unitY + this.perm[unitZ]]] & 15], x, y, z);
-		final double grad100 = FishyNoise.dot3(this.grad3d[this.perm[unitX + 1 + this.perm[unitY + this.perm[unitZ]]] & 15], x - 1, y, z);
-		final double grad010 = FishyNoise.dot3(this.grad3d[this.perm[unitX + this.perm[unitY + 1 + this.perm[unitZ]]] & 15], x, y - 1, z);
-		final double grad110 = FishyNoise.dot3(this.grad3d[this.perm[unitX + 1 + this.perm[unitY + 1 + this.perm[unitZ]]] & 15], x - 1, y - 1, z);
-		final double grad001 = FishyNoise.dot3(this.grad3d[this.perm[unitX + this.perm[unitY + this.perm[unitZ + 1]]] & 15], x, y, z - 1);
-		final double grad101 = FishyNoise.dot3(this.grad3d[this.perm[unitX + 1 + this.perm[unitY + this.perm[unitZ + 1]]] & 15], x - 1, y, z - 1);
-		final double grad011 = FishyNoise.dot3(this.grad3d[this.perm[unitX + this.perm[unitY + 1 + this.perm[unitZ + 1]]] & 15], x, y - 1, z - 1);
-		final double grad111 = FishyNoise.dot3(this.grad3d[this.perm[unitX + 1 + this.perm[unitY + 1 + this.perm[unitZ + 1]]] & 15], x - 1, y - 1, z - 1);
+		final double grad000 = FishyNoise.dot3(this.perm[unitX + this.perm[unitY + this.perm[unitZ]]] & 15, x, y, z);
+		final double grad100 = FishyNoise.dot3(this.perm[unitX + 1 + this.perm[unitY + this.perm[unitZ]]] & 15, x - 1, y, z);
+		final double grad010 = FishyNoise.dot3(this.perm[unitX + this.perm[unitY + 1 + this.perm[unitZ]]] & 15, x, y - 1, z);
+		final double grad110 = FishyNoise.dot3(this.perm[unitX + 1 + this.perm[unitY + 1 + this.perm[unitZ]]] & 15, x - 1, y - 1, z);
+		final double grad001 = FishyNoise.dot3(this.perm[unitX + this.perm[unitY + this.perm[unitZ + 1]]] & 15, x, y, z - 1);
+		final double grad101 = FishyNoise.dot3(this.perm[unitX + 1 + this.perm[unitY + this.perm[unitZ + 1]]] & 15, x - 1, y, z - 1);
+		final double grad011 = FishyNoise.dot3(this.perm[unitX + this.perm[unitY + 1 + this.perm[unitZ + 1]]] & 15, x, y - 1, z - 1);
+		final double grad111 = FishyNoise.dot3(this.perm[unitX + 1 + this.perm[unitY + 1 + this.perm[unitZ + 1]]] & 15, x - 1, y - 1, z - 1);
 
 		return FishyNoise.lerp(
 				FishyNoise.lerp(
@@ -9,4 +9,14 @@ public abstract class NoiseModule {
 	public abstract double getNoise(double i, double j);
 	public abstract double getNoise(double i, double j, double k);
 
+	/**
+	 * Samples {@link #getNoise(double, double)} at a fixed i for each of the given j values.
+	 * Implementations may override this to share work between neighbouring samples.
+	 */
+	public void fill2d(double[] out, double i, double[] js) {
+		for (int n = 0; n < js.length; n++) {
+			out[n] = this.getNoise(i, js[n]);
+		}
+	}
+
 }
\ No newline at end of file
@@ -43,6 +43,24 @@ public class Billowed extends NoiseModule {
 		return val;
 	}
 
+	@Override
+	public void fill2d(double[] out, double i, double[] js) {
+		i *= this.frequency;
+		double scale = this.frequency;
+		double curAmplitude = this.amplitude;
+		final double[] octave = this.numOctaves > 1 ? new double[js.length] : out;
+		for(int n = 0; n < this.numOctaves; n++) {
+			this.noiseGen.fill2d(octave, i + this.offsetX, js, scale, this.offsetY);
+			for (int m = 0; m < js.length; m++) {
+				double val = Math.abs(octave[m] * curAmplitude);
+				out[m] = n == 0 ? val : out[m] + val;
+			}
+			i *= 2;
+			scale *= 2;
+			curAmplitude *= this.persistance;
+		}
+	}
+
 	@Override
 	public double getNoise(double i, double j, double k) {
 		i *= this.frequency;
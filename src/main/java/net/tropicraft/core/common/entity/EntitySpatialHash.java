@@ -0,0 +1,177 @@
+package net.tropicraft.core.common.entity;
+
+import it.unimi.dsi.fastutil.ints.Int2LongMap;
+import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Living entities of a server level, hashed by chunk section and bucketed by class, for the mob AI that
+ * keeps looking for its neighbours. Unlike the level's own entity lookups, a query only visits entities
+ * of the classes it asks for, and never sees items, projectiles or other non-living entities.
+ * <p>
+ * The hash is kept up to date as entities join, leave and cross into another section, so it never
+ * needs rebuilding. Queries check the current bounding box of each entity.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class EntitySpatialHash {
+    private static final Map<ResourceKey<Level>, EntitySpatialHash> HASHES = new HashMap<>();
+
+    private final Long2ObjectMap<Map<Class<?>, List<LivingEntity>>> sections = new Long2ObjectOpenHashMap<>();
+    private final Int2LongMap entitySections = new Int2LongOpenHashMap();
+
+    public static EntitySpatialHash get(ServerLevel level) {
+        return HASHES.computeIfAbsent(level.dimension(), k -> new EntitySpatialHash());
+    }
+
+    /**
+     * Finds the entities of the given class whose bounding box intersects the box, like
+     * {@link Level#getEntitiesOfClass}. Only server levels are hashed, and only living entities are.
+     */
+    public static <T extends Entity> List<T> getEntities(Level level, Class<T> type, AABB box) {
+        return getEntities(level, type, box, e -> true);
+    }
+
+    public static <T extends Entity> List<T> getEntities(Level level, Class<T> type, AABB box, Predicate<? super T> predicate) {
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return level.getEntitiesOfClass(type, box, predicate);
+        }
+
+        List<T> entities = new ArrayList<>();
+        get(serverLevel).forEach(type, box, entity -> {
+            if (predicate.test(entity)) {
+                entities.add(entity);
+            }
+        });
+        return entities;
+    }
+
+    // Last, so entities whose joining is cancelled by another handler are never hashed
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoin(EntityJoinWorldEvent event) {
+        if (event.getWorld() instanceof ServerLevel level && event.getEntity() instanceof LivingEntity entity) {
+            get(level).add(entity, SectionPos.asLong(entity.blockPosition()));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveWorldEvent event) {
+        if (event.getWorld() instanceof ServerLevel level && event.getEntity() instanceof LivingEntity entity) {
+            EntitySpatialHash hash = HASHES.get(level.dimension());
+            if (hash != null) {
+                hash.remove(entity);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEnteringSection(EntityEvent.EnteringSection event) {
+        if (event.getEntity() instanceof LivingEntity entity && entity.level instanceof ServerLevel level) {
+            EntitySpatialHash hash = HASHES.get(level.dimension());
+            if (hash != null && hash.entitySections.containsKey(entity.getId())) {
+                hash.remove(entity);
+                hash.add(entity, event.getPackedNewPos());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            HASHES.remove(level.dimension());
+        }
+    }
+
+    private void add(LivingEntity entity, long section) {
+        if (entitySections.containsKey(entity.getId())) {
+            remove(entity);
+        }
+        entitySections.put(entity.getId(), section);
+        sections.computeIfAbsent(section, k -> new HashMap<>())
+                .computeIfAbsent(entity.getClass(), k -> new ArrayList<>())
+                .add(entity);
+    }
+
+    private void remove(LivingEntity entity) {
+        if (!entitySections.containsKey(entity.getId())) {
+            return;
+        }
+
+        long section = entitySections.remove(entity.getId());
+        Map<Class<?>, List<LivingEntity>> byClass = sections.get(section);
+        if (byClass == null) {
+            return;
+        }
+
+        List<LivingEntity> entities = byClass.get(entity.getClass());
+        if (entities != null && entities.remove(entity) && entities.isEmpty()) {
+            byClass.remove(entity.getClass());
+            if (byClass.isEmpty()) {
+                sections.remove(section);
+            }
+        }
+    }
+
+    /**
+     * Visits the entities of the given class whose bounding box intersects the box. The action must not
+     * add entities to the level or remove them from it.
+     */
+    public <T extends Entity> void forEach(Class<T> type, AABB box, Consumer<? super T> action) {
+        // Entities are hashed by the block they stand in, so their bounding boxes can reach into the neighbouring sections
+        int minX = SectionPos.blockToSectionCoord(Mth.floor(box.minX - 2.0));
+        int minY = SectionPos.blockToSectionCoord(Mth.floor(box.minY - 4.0));
+        int minZ = SectionPos.blockToSectionCoord(Mth.floor(box.minZ - 2.0));
+        int maxX = SectionPos.blockToSectionCoord(Mth.floor(box.maxX + 2.0));
+        int maxY = SectionPos.blockToSectionCoord(Mth.floor(box.maxY + 2.0));
+        int maxZ = SectionPos.blockToSectionCoord(Mth.floor(box.maxZ + 2.0));
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                for (int y = minY; y <= maxY; y++) {
+                    Map<Class<?>, List<LivingEntity>> byClass = sections.get(SectionPos.asLong(x, y, z));
+                    if (byClass == null) {
+                        continue;
+                    }
+
+                    for (Map.Entry<Class<?>, List<LivingEntity>> entry : byClass.entrySet()) {
+                        if (!type.isAssignableFrom(entry.getKey())) {
+                            continue;
+                        }
+                        for (LivingEntity entity : entry.getValue()) {
+                            if (!entity.isRemoved() && entity.getBoundingBox().intersects(box)) {
+                                action.accept(type.cast(entity));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entitySections.size();
+    }
+}
@@ -12,6 +12,7 @@ import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.phys.Vec3;
 import net.tropicraft.core.common.entity.passive.EntityKoaBase;
 
+import javax.annotation.Nullable;
 import java.util.EnumSet;
 
 public class EntityAIEatToHeal extends Goal
@@ -30,6 +31,8 @@ public class EntityAIEatToHeal extends Goal
 
     private float missingHealthToHeal = 5;
 
+    private int homeFoodSlot = -1;
+
     public EntityAIEatToHeal(EntityKoaBase entityObjIn)
     {
         this.entityObj = entityObjIn;
@@ -62,8 +65,9 @@ public class EntityAIEatToHeal extends Goal
     public void tick() {
         super.tick();
 
-        if (hasFoodSource(entityObj.inventory)) {
-            consumeOneStackSizeOfFood(entityObj.inventory);
+        int foodSlot = entityObj.inventory.findFood();
+        if (foodSlot >= 0) {
+            consumeOneStackSizeOfFood(entityObj.inventory, foodSlot);
             entityObj.heal(5);
             entityObj.level.playSound(null, entityObj.blockPosition(), SoundEvents.PLAYER_BURP, SoundSource.NEUTRAL, 1F, 1F);
             return;
@@ -181,45 +185,66 @@ public class EntityAIEatToHeal extends Goal
 
     public boolean hasFoodSource() {
 
-        if (hasFoodSource(entityObj.inventory)) return true;
+        if (entityObj.inventory.findFood() >= 0) return true;
 
         return hasFoodAtHome();
     }
 
     public boolean hasFoodAtHome() {
-        BlockPos blockposGoal = this.entityObj.getRestrictCenter();
-        if (!blockposGoal.equals(BlockPos.ZERO)) {
-            BlockEntity tile = entityObj.level.getBlockEntity(blockposGoal);
-            if (tile instanceof ChestBlockEntity) {
-                ChestBlockEntity chest = (ChestBlockEntity) tile;
-
-                if (hasFoodSource(chest)) return true;
-            }
-        }
-        return false;
+        ChestBlockEntity chest = getHomeChest();
+        return chest != null && findFoodAtHome(chest) >= 0;
     }
 
     public boolean hasFoodSource(Container inv) {
-        for (int i = 0; i < inv.getContainerSize(); i++) {
-            ItemStack stack = inv.getItem(i);
-            if (!stack.isEmpty() && stack.getItem().isEdible()) {
-                return true;
+        return findFood(inv) >= 0;
+    }
+
+    public ItemStack consumeOneStackSizeOfFoodAtHome() {
+        ChestBlockEntity chest = getHomeChest();
+        if (chest != null) {
+            int slot = findFoodAtHome(chest);
+            if (slot >= 0) {
+                return consumeOneStackSizeOfFood(chest, slot);
             }
         }
-        return false;
+        return ItemStack.EMPTY;
     }
 
-    public ItemStack consumeOneStackSizeOfFoodAtHome() {
+    @Nullable
+    private ChestBlockEntity getHomeChest() {
         BlockPos blockposGoal = this.entityObj.getRestrictCenter();
         if (!blockposGoal.equals(BlockPos.ZERO)) {
             BlockEntity tile = entityObj.level.getBlockEntity(blockposGoal);
-            if (tile instanceof ChestBlockEntity) {
-                ChestBlockEntity chest = (ChestBlockEntity) tile;
+            if (tile instanceof ChestBlockEntity chest) {
+                return chest;
+            }
+        }
+        return null;
+    }
 
-                return consumeOneStackSizeOfFood(chest);
+    /**
+     * Checks the slot food was last found in before going through the rest of the chest, as it is checked
+     * every tick while the Koa is hurt and the food tends to stay where it is.
+     */
+    private int findFoodAtHome(ChestBlockEntity chest) {
+        if (homeFoodSlot >= 0 && homeFoodSlot < chest.getContainerSize() && isFood(chest.getItem(homeFoodSlot))) {
+            return homeFoodSlot;
+        }
+        homeFoodSlot = findFood(chest);
+        return homeFoodSlot;
+    }
+
+    private static int findFood(Container inv) {
+        for (int i = 0; i < inv.getContainerSize(); i++) {
+            if (isFood(inv.getItem(i))) {
+                return i;
             }
         }
-        return ItemStack.EMPTY;
+        return -1;
+    }
+
+    private static boolean isFood(ItemStack stack) {
+        return !stack.isEmpty() && stack.getItem().isEdible();
     }
 
     /**
@@ -229,23 +254,21 @@ public class EntityAIEatToHeal extends Goal
      * @return
      */
     public ItemStack consumeOneStackSizeOfFood(Container inv) {
-        for (int i = 0; i < inv.getContainerSize(); i++) {
-            ItemStack stack = inv.getItem(i);
-            if (!stack.isEmpty()) {
-                if (stack.getItem().isEdible()) {
-                    stack.shrink(1);
-                    if (stack.getCount() <= 0) {
-                        inv.setItem(i, ItemStack.EMPTY);
-                    }
+        int slot = findFood(inv);
+        return slot >= 0 ? consumeOneStackSizeOfFood(inv, slot) : ItemStack.EMPTY;
+    }
 
-                    //returning the state of the single ate item, though this return value doesnt seem to be used anywhere atm
-                    ItemStack newStack = stack.copy();
-                    newStack.setCount(1);
-                    return newStack;
-                }
-            }
+    private ItemStack consumeOneStackSizeOfFood(Container inv, int slot) {
+        ItemStack stack = inv.getItem(slot);
+        stack.shrink(1);
+        if (stack.getCount() <= 0) {
+            inv.setItem(slot, ItemStack.EMPTY);
         }
-        return ItemStack.EMPTY;
+
+        //returning the state of the single ate item, though this return value doesnt seem to be used anywhere atm
+        ItemStack newStack = stack.copy();
+        newStack.setCount(1);
+        return newStack;
     }
 }
 
@@ -1,22 +1,28 @@
 package net.tropicraft.core.common.entity.ai;
 
 import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.Mth;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.biome.Biome;
 import net.tropicraft.core.common.Util;
 import net.tropicraft.core.common.entity.passive.EntityKoaBase;
 import net.tropicraft.core.common.entity.passive.FishingBobberEntity;
+import net.tropicraft.core.common.entity.passive.koa.KoaFishingSpots;
+import net.tropicraft.core.common.entity.passive.koa.KoaWorkScheduler;
 import net.tropicraft.core.common.item.TropicraftItems;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
+import java.util.function.BiPredicate;
 
 public class EntityAIGoneFishin extends Goal {
 
@@ -38,6 +44,11 @@ public class EntityAIGoneFishin extends Goal {
     private BlockPos posLastWaterFound;
     private BlockPos posLastLandFound;
 
+    //result of the water search run by the KoaWorkScheduler, picked up by the next canUse
+    private boolean waterSearchDone;
+    @Nullable
+    private BlockPos waterSearchResult;
+
     private int walkingTimeoutMax = 20*30;
     private int fishingTimeoutMax = 20*30;
 
@@ -98,13 +109,10 @@ public class EntityAIGoneFishin extends Goal {
         }
 
         boolean result = false;//state != FISHING_STATE.IDLE || (entity.ticksExisted % 100 == 0 && findWater() != null);
-        if (entity.lastTimeFished < entity.level.getGameTime() && entity.level.random.nextInt(3) == 0) {
-            BlockPos posWater = findWater();
-
-            //find close if failed
-            if (posWater == null) {
-                posWater = Util.findBlock(entity, 5, Util::isDeepWater);
-            }
+        if (entity.lastTimeFished < entity.level.getGameTime() && waterSearchDone) {
+            BlockPos posWater = waterSearchResult;
+            waterSearchDone = false;
+            waterSearchResult = null;
 
             if (posWater != null) {
                 if (Util.tryMoveToXYZLongDist(entity, posWater, moveSpeedAmp)) {
@@ -119,12 +127,23 @@ public class EntityAIGoneFishin extends Goal {
             } else {
                 debug("couldnt find water, skip executing");
             }
+        } else if (entity.lastTimeFished < entity.level.getGameTime() && entity.level.random.nextInt(3) == 0) {
+            scheduleWaterSearch();
         } else {
             //debug("waiting on timeout to fish");
         }
         return result;
     }
 
+    private void scheduleWaterSearch() {
+        if (entity.level instanceof ServerLevel serverLevel) {
+            KoaWorkScheduler.get(serverLevel).schedule(entity, KoaWorkScheduler.Kind.FIND_WATER, () -> {
+                waterSearchResult = findWater();
+                waterSearchDone = true;
+            });
+        }
+    }
+
     @Override
     public boolean canContinueToUse() {
         return posLastWaterFound != null;
@@ -400,12 +419,23 @@ public class EntityAIGoneFishin extends Goal {
         }
     }
 
+    @Nullable
     private BlockPos findWater() {
-        return Util.findBlock(entity, 60, Util::isDeepWater);
+        return findSpot(KoaFishingSpots.Kind.DEEP_WATER, Util::isDeepWater);
     }
 
+    @Nullable
     private BlockPos findLand() {
-        return Util.findBlock(entity, 60, Util::isLand);
+        return findSpot(KoaFishingSpots.Kind.SHORE, Util::isLand);
+    }
+
+    @Nullable
+    private BlockPos findSpot(KoaFishingSpots.Kind kind, BiPredicate<Level, BlockPos> predicate) {
+        if (entity.level instanceof ServerLevel serverLevel) {
+            // The 60 given to findBlock is the width of the area it searches, so it reaches half as far
+            return KoaFishingSpots.get(serverLevel).find(serverLevel, kind, entity.blockPosition(), 30, entity.level.random);
+        }
+        return Util.findBlock(entity, 60, predicate);
     }
 
     private int getFishCount() {
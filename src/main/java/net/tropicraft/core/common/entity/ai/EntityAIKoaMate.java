@@ -7,6 +7,7 @@ import net.minecraft.world.entity.AgeableMob;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.level.Level;
 import net.tropicraft.core.common.entity.passive.EntityKoaBase;
+import net.tropicraft.core.common.entity.passive.koa.KoaWorkScheduler;
 
 import java.util.EnumSet;
 import java.util.List;
@@ -30,7 +31,8 @@ public class EntityAIKoaMate extends Goal
     private final long TIME_BETWEEN_POPULATION_CHECKS = 20*10;
     private final int MAX_TOWN_POPULATION = 10;
     private long lastTimeCheckedVillagePopulation = -1;
-    private int cachedVillagePopulation = 0;
+    //treated as full until the first population check has run
+    private int cachedVillagePopulation = MAX_TOWN_POPULATION;
 
     public EntityAIKoaMate(EntityKoaBase villagerIn)
     {
@@ -142,23 +144,22 @@ public class EntityAIKoaMate extends Goal
     // fix in 1.14 by readding village object, or migrating to new vanilla villager system
     /**
      * Calculates if town can handle more villagers
-     * result is cached due to active ticking of mating constantly querying this method
+     * result is cached due to active ticking of mating constantly querying this method, and refreshed through the
+     * {@link KoaWorkScheduler} so the entity search doesn't run in the middle of goal selection
      * @return
      */
     private boolean canTownHandleMoreVillagers() {
-        double range = 100;
-        if (lastTimeCheckedVillagePopulation + TIME_BETWEEN_POPULATION_CHECKS < world.getGameTime()) {
+        if (lastTimeCheckedVillagePopulation + TIME_BETWEEN_POPULATION_CHECKS < world.getGameTime() && world instanceof ServerLevel serverLevel) {
             lastTimeCheckedVillagePopulation = world.getGameTime();
-            List<EntityKoaBase> listEntities = this.world.getEntitiesOfClass(EntityKoaBase.class, this.villagerObj.getBoundingBox().inflate(range, range, range));
-            cachedVillagePopulation = listEntities.size();
-            //System.out.println("update cached koa population to: " + cachedVillagePopulation);
-            return listEntities.size() < MAX_TOWN_POPULATION;
-        } else {
-            //System.out.println("return cached koa population: " + cachedVillagePopulation);
-            return cachedVillagePopulation < MAX_TOWN_POPULATION;
+            KoaWorkScheduler.get(serverLevel).schedule(villagerObj, KoaWorkScheduler.Kind.POPULATION_CHECK, () -> {
+                double range = 100;
+                List<EntityKoaBase> listEntities = this.world.getEntitiesOfClass(EntityKoaBase.class, this.villagerObj.getBoundingBox().inflate(range, range, range));
+                cachedVillagePopulation = listEntities.size();
+                //System.out.println("update cached koa population to: " + cachedVillagePopulation);
+            });
         }
-
-
+        //System.out.println("return cached koa population: " + cachedVillagePopulation);
+        return cachedVillagePopulation < MAX_TOWN_POPULATION;
     }
 
     /*private boolean canTownHandleMoreVillagers112()
@@ -1,7 +1,5 @@
 package net.tropicraft.core.common.entity.ai;
 
-import com.google.common.collect.Lists;
-import com.mojang.authlib.GameProfile;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.InteractionHand;
@@ -10,17 +8,14 @@ import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.entity.ai.util.DefaultRandomPos;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.biome.Biome;
-import net.minecraft.world.level.block.NoteBlock;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec3;
-import net.minecraftforge.common.util.FakePlayerFactory;
 import net.tropicraft.core.common.Util;
 import net.tropicraft.core.common.entity.passive.EntityKoaBase;
+import net.tropicraft.core.common.entity.passive.koa.KoaPartyConductor;
+import net.tropicraft.core.common.entity.passive.koa.KoaVillageBoard;
 
+import javax.annotation.Nullable;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.List;
-import java.util.UUID;
 
 public class EntityAIPartyTime extends Goal
 {
@@ -40,6 +35,9 @@ public class EntityAIPartyTime extends Goal
     private boolean wasClose = false;
     private boolean bangDrum = false;
 
+    @Nullable
+    private KoaPartyConductor soloConductor;
+
     public EntityAIPartyTime(EntityKoaBase entityObjIn)
     {
         this.entityObj = entityObjIn;
@@ -137,100 +135,13 @@ public class EntityAIPartyTime extends Goal
 
                     entityObj.setItemSlot(EquipmentSlot.MAINHAND, ItemStack.EMPTY);
 
-                    //keep for testing, was neat sounding
-                    int amp = 1;//entityObj.level.random.nextInt(10) + 1;
-                    int rate = 4 + (entityObj.getId() % 7);
-
-                    int index1 = 0;
-
-                    HashMap<Integer, List<Integer>> lookupStateToSequence = new HashMap<>();
-
-                    List<Integer> listDelays = Lists.newArrayList(9, 3, 3, 3, 6);
-
-                    lookupStateToSequence.put(index1++, listDelays);
-                    lookupStateToSequence.put(index1++, listDelays);
-                    lookupStateToSequence.put(index1++, listDelays);
-
-                    lookupStateToSequence.put(index1++, Lists.newArrayList(9, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 12));
-
-                    int nightStart = 12500;
-                    int nightEnd = 23500;
-                    int phases = 4;
-                    int phaseSplit = (nightEnd - nightStart) / phases;
-
-                    int timeOfDay = (int)(entityObj.level.getDayTime() % 24000);
-                    int nightTime = (timeOfDay - nightStart);
-
-                    if (nightTime > phaseSplit * 3) {
-                        amp = 1;
-                    } else if (nightTime > phaseSplit * 2) {
-                        amp = 2;
-                    } else if (nightTime > phaseSplit * 1) {
-                        amp = 3;
-                    } else {
-                        amp = 4;
-                    }
-
-                    if (entityObj.hitIndex2 >= lookupStateToSequence.get(entityObj.hitIndex).size()) {
-                        entityObj.hitIndex2 = 0;
-                        entityObj.hitIndex++;
-                    }
-
-                    if (entityObj.hitIndex >= lookupStateToSequence.size()) {
-                        entityObj.hitIndex = 0;
-                    }
-
-                    rate = lookupStateToSequence.get(entityObj.hitIndex).get(entityObj.hitIndex2);
-
-                    if (entityObj.hitDelay > 0) {
-                        entityObj.hitDelay--;
-                    }
-
-                    boolean perEntDelay = false;
-
-                    boolean hit = false;
-                    if (perEntDelay) {
-                        if (entityObj.hitDelay <= 0) {
-                            entityObj.hitDelay = (amp * rate);
-                            hit = true;
-                        }
-                    } else {
-                        hit = entityObj.level.getGameTime() % (amp * rate) == 0;
-                    }
-                    //System.out.println(entityObj.world.getGameTime());
-
-                    if (hit) {
-                        //System.out.println("stage: " + entityObj.hitIndex + " - " + entityObj.hitIndex2);
-                        entityObj.hitIndex2++;
-                        BlockState state = entityObj.level.getBlockState(blockposGoal);
-                        //TODO: 1.14 readd
-                        /*if (state.getBlock() instanceof BlockBongoDrum) {
-                            //((BlockBongoDrum) state.getOwner()).playBongoSound(entityObj.world, null, blockposGoal, state);
-                            TropicraftBongos bongo = ((BlockBongoDrum) state.getOwner()).getVariant(state);
-                            float pitch = (entityObj.level.random.nextFloat() * 1F) + 0F;
-                            entityObj.world.playSound(null, blockposGoal.getX(), blockposGoal.getY() + 0.5D, blockposGoal.getZ(),
-                                    bongo.getSoundEvent(), SoundCategory.BLOCKS, 2.5F, pitch);
-                            entityObj.swingArm(Hand.MAIN_HAND);
-                        } else */
-                        if (state.getBlock() instanceof NoteBlock) {
-                            if (entityObj.level.random.nextInt(10) == 0) {
-                                for (int i = 0; i < 1 + entityObj.level.random.nextInt(4); i++) {
-                                    //note.changePitch();
-                                    state.cycle(NoteBlock.NOTE).getValue(NoteBlock.NOTE);
-                                }
-                            } else {
-                                //note.triggerNote(entityObj.world, blockposGoal);
-                                state.getBlock().attack(state, entityObj.level, blockposGoal,
-                                        FakePlayerFactory.get((ServerLevel) entityObj.level,
-                                                new GameProfile(UUID.fromString("e517cf6a-ce31-4ac8-b48d-44b4f0f918a7"), "tropicraftKoa")));
-                            }
+                    KoaPartyConductor conductor = getConductor();
+                    if (conductor.isBeat(entityObj.level) && entityObj.level instanceof ServerLevel serverLevel) {
+                        if (conductor.hitDrum(serverLevel, blockposGoal, entityObj.level.random)) {
                             entityObj.swing(InteractionHand.MAIN_HAND);
-
                         }
                     }
 
-                    entityObj.syncBPM();
-
                 }
 
                 this.entityObj.getLookControl().setLookAt(blockposGoal.getX() + randXPos, blockposGoal.getY() + randYPos + 1D, blockposGoal.getZ() + randZPos,
@@ -321,6 +232,18 @@ public class EntityAIPartyTime extends Goal
         this.doorInfo = null;*/
     }
 
+    private KoaPartyConductor getConductor() {
+        KoaVillageBoard board = entityObj.getVillageBoard();
+        if (board != null) {
+            return board.getConductor();
+        }
+        //no home to party with others at, keep our own beat
+        if (soloConductor == null) {
+            soloConductor = new KoaPartyConductor();
+        }
+        return soloConductor;
+    }
+
     public boolean isTooClose() {
         BlockPos blockposGoal = null;
         if (this.entityObj.posLastFireplaceFound != null) {
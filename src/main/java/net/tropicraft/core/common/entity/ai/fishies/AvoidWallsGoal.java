@@ -20,7 +20,8 @@ public class AvoidWallsGoal extends Goal {
 
     @Override
     public boolean canUse() {
-        return entity.isInWater();
+        // Schools look out for walls as a whole
+        return entity.isInWater() && !entity.isSchooling();
     }
 
     @Override
@@ -32,9 +33,7 @@ public class AvoidWallsGoal extends Goal {
         
         Vec3 diff = new Vec3(entity.getX() + (angle.x * frontDist), entity.getY() + angle.y, entity.getZ() + (angle.z * frontDist));
 
-        BlockPos bp = new BlockPos((int) diff.x, (int) entity.getY(), (int) diff.z);
-
-        if (!entity.level.getBlockState(bp).getMaterial().isLiquid() && !entity.isMovingAwayFromWall) {
+        if (!WaterVolume.isLiquid(entity.level, (int) diff.x, (int) entity.getY(), (int) diff.z) && !entity.isMovingAwayFromWall) {
             entity.setRandomTargetHeadingForce(32);
             entity.isMovingAwayFromWall = true;
         }
@@ -44,7 +43,7 @@ public class AvoidWallsGoal extends Goal {
         
         
         if (entity.targetVector != null && entity.isMovingAwayFromWall) {
-            bp = new BlockPos((int) entity.targetVector.x, (int) entity.targetVector.y, (int) entity.targetVector.z);
+            BlockPos bp = new BlockPos((int) entity.targetVector.x, (int) entity.targetVector.y, (int) entity.targetVector.z);
 
             if(entity.blockPosition().equals(bp) && entity.tickCount % 80 == 0) {
                 entity.isMovingAwayFromWall = false;
@@ -53,18 +52,16 @@ public class AvoidWallsGoal extends Goal {
         
         
         // Near surface check
-        bp = entity.blockPosition();
-        if (!entity.level.getBlockState(bp).getMaterial().isLiquid()) {
+        BlockPos bp = entity.blockPosition();
+        if (!WaterVolume.isLiquid(entity.level, bp)) {
             if (entity.swimPitch > 0f) {
                 entity.isPanicking = false;
                 entity.setRandomTargetHeadingForce(32);
             }
         }
 
-        bp = new BlockPos(entity.blockPosition().below(2));
-
         // Hitting bottom check
-        if (!entity.level.getBlockState(bp).getMaterial().isLiquid()) {
+        if (!WaterVolume.isLiquid(entity.level, bp.getX(), bp.getY() - 2, bp.getZ())) {
             if (entity.swimPitch < 0f) {
                 entity.swimPitch+= 2f;
             }
@@ -76,6 +73,6 @@ public class AvoidWallsGoal extends Goal {
      */
     @Override
     public boolean canContinueToUse() {
-        return entity.isInWater();
+        return entity.isInWater() && !entity.isSchooling();
     }
 }
@@ -0,0 +1,97 @@
+package net.tropicraft.core.common.entity.ai.fishies;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+import net.tropicraft.core.common.entity.EntitySpatialHash;
+import net.tropicraft.core.common.entity.ai.flock.Flock;
+import net.tropicraft.core.common.entity.underdasea.TropicraftFishEntity;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Moves fish of the same kind together as a school. The school picks the direction it travels in and
+ * looks ahead for walls once per tick, instead of every fish probing and wandering on its own through
+ * {@link AvoidWallsGoal} and {@link RandomSwimGoal}.
+ */
+public final class FishSchooling implements Flock.Behavior<TropicraftFishEntity> {
+    public static final FishSchooling INSTANCE = new FishSchooling();
+
+    private static final Flock.Settings SETTINGS = new Flock.Settings(12, 1.5, 1.0, 5.0, 0.1, 1.0);
+
+    private static final double JOIN_RANGE = 8.0;
+    private static final double LOOK_AHEAD = 3.0;
+    private static final int WANDER_INTERVAL = 100;
+
+    private FishSchooling() {
+    }
+
+    /**
+     * Puts the fish into the school of a nearby fish of the same kind, or starts a new school with one.
+     */
+    public static void tryJoin(TropicraftFishEntity fish) {
+        if (!(fish.level instanceof ServerLevel level)) {
+            return;
+        }
+
+        List<? extends TropicraftFishEntity> nearby = EntitySpatialHash.getEntities(level, fish.getClass(), fish.getBoundingBox().inflate(JOIN_RANGE),
+                other -> other != fish && other.isInWater());
+        for (TropicraftFishEntity other : nearby) {
+            Flock<TropicraftFishEntity> school = other.getSchool();
+            if (school != null && school.add(fish)) {
+                fish.setSchool(school);
+                return;
+            }
+        }
+
+        for (TropicraftFishEntity other : nearby) {
+            if (other.getSchool() == null) {
+                Flock<TropicraftFishEntity> school = new Flock<>(level, SETTINGS, INSTANCE);
+                school.add(other);
+                school.add(fish);
+                other.setSchool(school);
+                fish.setSchool(school);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void tickFlock(Flock<TropicraftFishEntity> school) {
+        Level level = school.getLevel();
+        Random random = level.random;
+
+        Vec3 travel = school.getTravel();
+        boolean wander = travel.lengthSqr() < 1.0E-4 || level.getGameTime() % WANDER_INTERVAL == 0 && random.nextInt(3) == 0;
+        if (!wander && WaterVolume.canSwimBetween(level, school.getCentre(), school.getCentre().add(travel.scale(LOOK_AHEAD)))) {
+            return;
+        }
+
+        // Heading into a wall, or time for a change: find some open water to head towards instead
+        for (int i = 0; i < 8; i++) {
+            float yaw = random.nextFloat() * ((float) Math.PI * 2F);
+            float pitch = (random.nextFloat() - 0.5F) * 0.6F;
+            Vec3 direction = new Vec3(Mth.sin(yaw), pitch, Mth.cos(yaw)).normalize();
+            if (WaterVolume.canSwimBetween(level, school.getCentre(), school.getCentre().add(direction.scale(LOOK_AHEAD)))) {
+                school.setTravel(direction);
+                return;
+            }
+        }
+        school.setTravel(travel.reverse());
+    }
+
+    @Override
+    public void steer(Flock<TropicraftFishEntity> school, TropicraftFishEntity fish, Vec3 direction) {
+        // Chasing prey and fleeing are up to the fish itself
+        if (fish.aggressTarget == null && !fish.isPanicking) {
+            fish.steerTowards(direction);
+        }
+    }
+
+    @Override
+    public void onLeave(TropicraftFishEntity fish) {
+        fish.setSchool(null);
+    }
+}
@@ -18,7 +18,8 @@ public class RandomSwimGoal extends Goal {
 
     @Override
     public boolean canUse() {
-        return entity.isInWater() && entity.tickCount % 10+rand.nextInt(20) == 0;
+        // Schools pick where to go as a whole
+        return entity.isInWater() && !entity.isSchooling() && entity.tickCount % 10+rand.nextInt(20) == 0;
     }
 
     @Override
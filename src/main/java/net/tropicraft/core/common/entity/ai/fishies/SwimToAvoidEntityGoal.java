@@ -1,7 +1,9 @@
 package net.tropicraft.core.common.entity.ai.fishies;
 
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.goal.Goal;
+import net.tropicraft.core.common.entity.EntitySpatialHash;
 import net.tropicraft.core.common.entity.underdasea.TropicraftFishEntity;
 
 import java.util.Arrays;
@@ -33,7 +35,8 @@ public class SwimToAvoidEntityGoal extends Goal {
     public void tick() {
         super.tick();
         
-        List<Entity> ents = entity.level.getEntities(entity, entity.getBoundingBox().inflate(this.distanceToAvoid));
+        // Only living entities are hashed, which is all there is to be scared of
+        List<LivingEntity> ents = EntitySpatialHash.getEntities(entity.level, LivingEntity.class, entity.getBoundingBox().inflate(this.distanceToAvoid), e -> e != entity);
         List<Class<? extends Entity>> classes = Arrays.asList(entityClassToAvoid);
         for (int i = 0; i < ents.size(); i++) {
             if (classes.contains(ents.get(i).getClass())) {
@@ -6,6 +6,7 @@ import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.goal.Goal;
 import net.minecraft.world.phys.AABB;
+import net.tropicraft.core.common.entity.EntitySpatialHash;
 import net.tropicraft.core.common.entity.underdasea.TropicraftFishEntity;
 
 import java.util.EnumSet;
@@ -33,13 +34,12 @@ public class TargetPreyGoal extends Goal {
         
         // Target selection
         AABB entityBB = entity.getBoundingBox();
-        if (entity.tickCount % 80 == 0 && entity.aggressTarget == null || entity.getCommandSenderWorld().getEntity(entity.aggressTarget.getId()) == null) {
-                List<Entity> list = entity.level.getEntities(entity, entityBB.inflate(20D, 20D, 20D).move(0.0D, -8.0D, 0.0D), e -> e.isAlive());
+        if (entity.aggressTarget == null ? entity.tickCount % 80 == 0 : entity.getCommandSenderWorld().getEntity(entity.aggressTarget.getId()) == null) {
+                List<LivingEntity> list = EntitySpatialHash.getEntities(entity.level, LivingEntity.class, entityBB.inflate(20D, 20D, 20D).move(0.0D, -8.0D, 0.0D), e -> e != entity && e.isAlive());
                 if(list.size() > 0) {
-                    Entity ent = list.get(rand.nextInt(list.size()));
+                    LivingEntity ent = list.get(rand.nextInt(list.size()));
                     boolean skip = false;
-                    if(ent.equals(entity)) skip = true;    
-                    if(ent.getClass().getName().equals(entity.getClass().getName())) skip = true;    
+                    if(ent.getClass() == entity.getClass()) skip = true;    
 //                    if(entity instanceof IPredatorDiet) {
 //                        Class[] prey = ((IPredatorDiet)entity).getPreyClasses();
 //                        boolean contains = false;
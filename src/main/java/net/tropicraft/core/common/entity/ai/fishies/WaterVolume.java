@@ -0,0 +1,260 @@
+package net.tropicraft.core.common.entity.ai.fishies;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.phys.Vec3;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Which blocks of a server level are liquid, one bit per block, for the fish AI that keeps probing
+ * the water around it. Each chunk section gets a 4096 bit set the first time it is looked at, built
+ * straight from its block states, and kept current as blocks change after that. Sections without any
+ * liquid in them share an empty set. Changes that don't notify neighbours go unheard, so the checks
+ * that matter most go through {@link #checkLiquid}, which fixes up the bits from the block itself.
+ * <p>
+ * Blocks in chunks that aren't loaded count as not liquid.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class WaterVolume {
+    private static final Map<ResourceKey<Level>, WaterVolume> VOLUMES = new HashMap<>();
+
+    private static final long[] EMPTY = new long[0];
+    private static final int WORDS = 16 * 16 * 16 / Long.SIZE;
+
+    private final Long2ObjectMap<long[]> sections = new Long2ObjectOpenHashMap<>();
+
+    // Probes tend to stay in the same section, so save looking it up again
+    private long lastSection = Long.MAX_VALUE;
+    private long[] lastBits = EMPTY;
+
+    private static WaterVolume get(ServerLevel level) {
+        return VOLUMES.computeIfAbsent(level.dimension(), k -> new WaterVolume());
+    }
+
+    public static boolean isLiquid(Level level, BlockPos pos) {
+        return isLiquid(level, pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    public static boolean isLiquid(Level level, int x, int y, int z) {
+        if (level instanceof ServerLevel serverLevel) {
+            return get(serverLevel).test(serverLevel, x, y, z);
+        }
+        return isLiquid(level.getBlockState(new BlockPos(x, y, z)));
+    }
+
+    /**
+     * Like {@link #isLiquid(Level, int, int, int)}, but reads the block itself rather than trusting the
+     * bits, and corrects them if they disagree. Not every block change is heard about, such as blocks set
+     * without notifying neighbours, so this is for the rarer checks that decide where a fish heads.
+     */
+    public static boolean checkLiquid(Level level, int x, int y, int z) {
+        BlockPos pos = new BlockPos(x, y, z);
+        if (!level.hasChunkAt(pos)) {
+            return false;
+        }
+
+        boolean liquid = isLiquid(level.getBlockState(pos));
+        if (level instanceof ServerLevel serverLevel) {
+            WaterVolume volume = VOLUMES.get(serverLevel.dimension());
+            if (volume != null) {
+                volume.set(pos, liquid);
+            }
+        }
+        return liquid;
+    }
+
+    /**
+     * Checks that every block along the line between the two points is liquid, so a fish could swim
+     * straight from one to the other.
+     */
+    public static boolean canSwimBetween(Level level, Vec3 from, Vec3 to) {
+        WaterVolume volume = level instanceof ServerLevel serverLevel ? get(serverLevel) : null;
+
+        int x = Mth.floor(from.x);
+        int y = Mth.floor(from.y);
+        int z = Mth.floor(from.z);
+        int steps = Math.abs(Mth.floor(to.x) - x) + Math.abs(Mth.floor(to.y) - y) + Math.abs(Mth.floor(to.z) - z);
+
+        double dx = to.x - from.x;
+        double dy = to.y - from.y;
+        double dz = to.z - from.z;
+        int stepX = (int) Math.signum(dx);
+        int stepY = (int) Math.signum(dy);
+        int stepZ = (int) Math.signum(dz);
+
+        // Distance along the line, as a fraction of it, to cross one block on each axis, and to the next block boundary
+        double deltaX = stepX != 0 ? Math.abs(1.0 / dx) : Double.MAX_VALUE;
+        double deltaY = stepY != 0 ? Math.abs(1.0 / dy) : Double.MAX_VALUE;
+        double deltaZ = stepZ != 0 ? Math.abs(1.0 / dz) : Double.MAX_VALUE;
+        double nextX = stepX > 0 ? (x + 1 - from.x) * deltaX : stepX < 0 ? (from.x - x) * deltaX : Double.MAX_VALUE;
+        double nextY = stepY > 0 ? (y + 1 - from.y) * deltaY : stepY < 0 ? (from.y - y) * deltaY : Double.MAX_VALUE;
+        double nextZ = stepZ > 0 ? (z + 1 - from.z) * deltaZ : stepZ < 0 ? (from.z - z) * deltaZ : Double.MAX_VALUE;
+
+        for (int i = 0; ; i++) {
+            boolean liquid = volume != null ? volume.test((ServerLevel) level, x, y, z) : isLiquid(level, x, y, z);
+            if (!liquid) {
+                return false;
+            }
+            if (i == steps) {
+                return true;
+            }
+
+            if (nextX < nextY && nextX < nextZ) {
+                x += stepX;
+                nextX += deltaX;
+            } else if (nextY < nextZ) {
+                y += stepY;
+                nextY += deltaY;
+            } else {
+                z += stepZ;
+                nextZ += deltaZ;
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            WaterVolume volume = VOLUMES.get(level.dimension());
+            if (volume != null) {
+                int chunkX = event.getChunk().getPos().x;
+                int chunkZ = event.getChunk().getPos().z;
+                for (int sectionY = level.getMinSection(); sectionY < level.getMaxSection(); sectionY++) {
+                    volume.sections.remove(SectionPos.asLong(chunkX, sectionY, chunkZ));
+                }
+                volume.lastSection = Long.MAX_VALUE;
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            VOLUMES.remove(level.dimension());
+        }
+    }
+
+    // Cancelling either event doesn't undo the change that fired it, so they are still listened to when cancelled
+    @SubscribeEvent(receiveCanceled = true)
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        update(event.getWorld(), event.getPos());
+    }
+
+    @SubscribeEvent(receiveCanceled = true)
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        // Fired for every notifying block change, including water spreading or draining away
+        update(event.getWorld(), event.getPos());
+    }
+
+    private static void update(LevelAccessor world, BlockPos pos) {
+        if (world instanceof ServerLevel level) {
+            WaterVolume volume = VOLUMES.get(level.dimension());
+            if (volume != null) {
+                // Read what is there now, as a cancelled placement puts back what was there before
+                volume.set(pos, isLiquid(level.getBlockState(pos)));
+            }
+        }
+    }
+
+    private static boolean isLiquid(BlockState state) {
+        return state.getMaterial().isLiquid();
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y & 15) << 8 | (z & 15) << 4 | (x & 15);
+    }
+
+    private boolean test(ServerLevel level, int x, int y, int z) {
+        long key = SectionPos.asLong(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(y), SectionPos.blockToSectionCoord(z));
+        long[] bits;
+        if (key == lastSection) {
+            bits = lastBits;
+        } else {
+            bits = sections.get(key);
+            if (bits == null) {
+                LevelChunk chunk = level.getChunkSource().getChunkNow(SectionPos.blockToSectionCoord(x), SectionPos.blockToSectionCoord(z));
+                if (chunk == null) {
+                    return false;
+                }
+                bits = build(chunk, SectionPos.blockToSectionCoord(y));
+                sections.put(key, bits);
+            }
+            lastSection = key;
+            lastBits = bits;
+        }
+
+        if (bits.length == 0) {
+            return false;
+        }
+        int index = index(x, y, z);
+        return (bits[index >> 6] & 1L << index) != 0;
+    }
+
+    private void set(BlockPos pos, boolean liquid) {
+        long key = SectionPos.asLong(pos);
+        long[] bits = sections.get(key);
+        // Sections nobody has looked at yet are built from the current blocks when they are
+        if (bits == null) {
+            return;
+        }
+
+        if (bits.length == 0) {
+            if (!liquid) {
+                return;
+            }
+            bits = new long[WORDS];
+            sections.put(key, bits);
+            lastSection = Long.MAX_VALUE;
+        }
+
+        int index = index(pos.getX(), pos.getY(), pos.getZ());
+        if (liquid) {
+            bits[index >> 6] |= 1L << index;
+        } else {
+            bits[index >> 6] &= ~(1L << index);
+        }
+    }
+
+    private static long[] build(LevelChunk chunk, int sectionY) {
+        int sectionIndex = chunk.getSectionIndexFromSectionY(sectionY);
+        if (sectionIndex < 0 || sectionIndex >= chunk.getSectionsCount()) {
+            return EMPTY;
+        }
+
+        LevelChunkSection section = chunk.getSection(sectionIndex);
+        if (section.hasOnlyAir() || !section.getStates().maybeHas(WaterVolume::isLiquid)) {
+            return EMPTY;
+        }
+
+        long[] bits = new long[WORDS];
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (isLiquid(section.getBlockState(x, y, z))) {
+                        int index = index(x, y, z);
+                        bits[index >> 6] |= 1L << index;
+                    }
+                }
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,223 @@
+package net.tropicraft.core.common.entity.ai.flock;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A group of mobs moving together, like a school of fish or a flock of birds. Once per tick the
+ * {@link FlockManager} works out the centre and velocity of the whole group, then steers every member
+ * with the usual boids rules:
+ * <ul>
+ *     <li>separation, away from members that are too close</li>
+ *     <li>alignment, along the velocity of the group, or of its leader</li>
+ *     <li>cohesion, towards the centre of the group, or its leader</li>
+ * </ul>
+ * plus the direction the group as a whole wants to travel in, if it has one. What to do with the
+ * resulting direction, and avoiding obstacles, is left to the {@link Behavior}.
+ */
+public final class Flock<T extends Mob> {
+    public record Settings(int maxSize, double separationDistance, double separationWeight, double alignmentWeight, double cohesionWeight, double travelWeight) {
+    }
+
+    public interface Behavior<T extends Mob> {
+        /**
+         * Called once per tick before the members are steered, to update the flock as a whole.
+         */
+        default void tickFlock(Flock<T> flock) {
+        }
+
+        /**
+         * Applies the direction the member should be heading in.
+         */
+        void steer(Flock<T> flock, T member, Vec3 direction);
+
+        /**
+         * Called when a member leaves the flock, or the flock is disbanded.
+         */
+        void onLeave(T member);
+    }
+
+    private final ServerLevel level;
+    private final Settings settings;
+    private final Behavior<T> behavior;
+
+    private final List<T> members = new ArrayList<>();
+    @Nullable
+    private T leader;
+
+    private Vec3 centre = Vec3.ZERO;
+    private Vec3 velocity = Vec3.ZERO;
+    private Vec3 travel = Vec3.ZERO;
+
+    private boolean registered;
+
+    public Flock(ServerLevel level, Settings settings, Behavior<T> behavior) {
+        this.level = level;
+        this.settings = settings;
+        this.behavior = behavior;
+    }
+
+    public Flock(ServerLevel level, Settings settings, Behavior<T> behavior, T leader) {
+        this(level, settings, behavior);
+        this.leader = leader;
+    }
+
+    /**
+     * @return False if the flock is already full
+     */
+    public boolean add(T member) {
+        if (members.contains(member)) {
+            return true;
+        }
+        if (isFull()) {
+            return false;
+        }
+
+        members.add(member);
+        if (!registered) {
+            FlockManager.get(level).add(this);
+            registered = true;
+        }
+        return true;
+    }
+
+    public void remove(T member) {
+        if (members.remove(member)) {
+            behavior.onLeave(member);
+        }
+    }
+
+    public void disband() {
+        List<T> left = new ArrayList<>(members);
+        members.clear();
+        leader = null;
+        left.forEach(behavior::onLeave);
+    }
+
+    public boolean isFull() {
+        return members.size() >= settings.maxSize();
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public List<T> getMembers() {
+        return Collections.unmodifiableList(members);
+    }
+
+    @Nullable
+    public T getLeader() {
+        return leader;
+    }
+
+    public ServerLevel getLevel() {
+        return level;
+    }
+
+    public Vec3 getCentre() {
+        return centre;
+    }
+
+    public Vec3 getVelocity() {
+        return velocity;
+    }
+
+    public Vec3 getTravel() {
+        return travel;
+    }
+
+    /**
+     * Sets the direction the flock as a whole should travel in, weighed against the boids rules.
+     */
+    public void setTravel(Vec3 travel) {
+        this.travel = travel;
+    }
+
+    /**
+     * @return False once the flock is empty and should be dropped
+     */
+    boolean tick() {
+        if (leader != null && (leader.isRemoved() || !leader.isAlive())) {
+            disband();
+        }
+
+        for (int i = members.size() - 1; i >= 0; i--) {
+            T member = members.get(i);
+            if (member.isRemoved() || !member.isAlive() || member.level != level) {
+                members.remove(i);
+                behavior.onLeave(member);
+            }
+        }
+
+        if (members.isEmpty()) {
+            registered = false;
+            return false;
+        }
+
+        updateCentre();
+        behavior.tickFlock(this);
+        if (members.isEmpty()) {
+            registered = false;
+            return false;
+        }
+
+        Vec3 anchor = leader != null ? leader.position() : centre;
+        Vec3 alignment = leader != null ? leader.getDeltaMovement() : velocity;
+        for (T member : members) {
+            Vec3 position = member.position();
+            Vec3 direction = separation(member, position).scale(settings.separationWeight())
+                    .add(alignment.scale(settings.alignmentWeight()))
+                    .add(anchor.subtract(position).scale(settings.cohesionWeight()))
+                    .add(travel.scale(settings.travelWeight()));
+            behavior.steer(this, member, direction);
+        }
+        return true;
+    }
+
+    private void updateCentre() {
+        double x = 0.0, y = 0.0, z = 0.0;
+        double vx = 0.0, vy = 0.0, vz = 0.0;
+        for (T member : members) {
+            x += member.getX();
+            y += member.getY();
+            z += member.getZ();
+            Vec3 motion = member.getDeltaMovement();
+            vx += motion.x;
+            vy += motion.y;
+            vz += motion.z;
+        }
+
+        double count = members.size();
+        centre = new Vec3(x / count, y / count, z / count);
+        velocity = new Vec3(vx / count, vy / count, vz / count);
+    }
+
+    private Vec3 separation(T member, Vec3 position) {
+        double maxDistanceSqr = settings.separationDistance() * settings.separationDistance();
+        double x = 0.0, y = 0.0, z = 0.0;
+        for (T other : members) {
+            if (other == member) {
+                continue;
+            }
+
+            double dx = position.x - other.getX();
+            double dy = position.y - other.getY();
+            double dz = position.z - other.getZ();
+            double distanceSqr = dx * dx + dy * dy + dz * dz;
+            // Members sharing a spot have no direction to move apart in
+            if (distanceSqr < maxDistanceSqr && distanceSqr > 1.0E-4) {
+                x += dx / distanceSqr;
+                y += dy / distanceSqr;
+                z += dz / distanceSqr;
+            }
+        }
+        return new Vec3(x, y, z);
+    }
+}
@@ -0,0 +1,61 @@
+package net.tropicraft.core.common.entity.ai.flock;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ticks the {@link Flock}s of each server level at the end of the world tick, after all their
+ * members have moved. Flocks are added when their first member joins, and dropped once they are empty.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class FlockManager {
+    private static final Map<ResourceKey<Level>, FlockManager> MANAGERS = new HashMap<>();
+
+    private final List<Flock<?>> flocks = new ArrayList<>();
+
+    static FlockManager get(ServerLevel level) {
+        return MANAGERS.computeIfAbsent(level.dimension(), k -> new FlockManager());
+    }
+
+    void add(Flock<?> flock) {
+        flocks.add(flock);
+    }
+
+    public static int getFlockCount(ServerLevel level) {
+        FlockManager manager = MANAGERS.get(level.dimension());
+        return manager != null ? manager.flocks.size() : 0;
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.world instanceof ServerLevel level) {
+            FlockManager manager = MANAGERS.get(level.dimension());
+            if (manager != null) {
+                // Flocks that are ticked may create new ones, which get their first tick next time
+                for (int i = manager.flocks.size() - 1; i >= 0; i--) {
+                    if (!manager.flocks.get(i).tick()) {
+                        manager.flocks.remove(i);
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            MANAGERS.remove(level.dimension());
+        }
+    }
+}
@@ -25,7 +25,6 @@ import net.minecraft.util.Mth;
 import net.minecraft.world.DifficultyInstance;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.InteractionResult;
-import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.effect.MobEffectInstance;
 import net.minecraft.world.effect.MobEffects;
@@ -55,18 +54,21 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.entity.ChestBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.pathfinder.BlockPathTypes;
-import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.HitResult;
 import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.api.distmarker.OnlyIn;
 import net.minecraftforge.registries.RegistryObject;
-import net.tropicraft.core.common.TropicraftTags;
 import net.tropicraft.core.common.entity.TropicraftEntities;
 import net.tropicraft.core.common.entity.ai.*;
+import net.tropicraft.core.common.entity.passive.koa.KoaInventory;
+import net.tropicraft.core.common.entity.passive.koa.KoaPoiIndex;
+import net.tropicraft.core.common.entity.passive.koa.KoaVillageBoard;
+import net.tropicraft.core.common.entity.passive.koa.KoaWorkScheduler;
 import net.tropicraft.core.common.item.TropicraftItems;
 
 import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class EntityKoaBase extends Villager {
 
@@ -77,7 +79,7 @@ public class EntityKoaBase extends Villager {
     public List<BlockPos> listPosDrums = new ArrayList<>();
     public static int MAX_DRUMS = 12;
 
-    public SimpleContainer inventory;
+    public KoaInventory inventory;
 
     private static final EntityDataAccessor<Integer> ROLE = SynchedEntityData.defineId(EntityKoaBase.class, EntityDataSerializers.INT);
     private static final EntityDataAccessor<Integer> GENDER = SynchedEntityData.defineId(EntityKoaBase.class, EntityDataSerializers.INT);
@@ -93,6 +95,9 @@ public class EntityKoaBase extends Villager {
 
     private ResourceKey<Level> villageDimension;
 
+    @Nullable
+    private KoaVillageBoard villageBoard;
+
     private FishingBobberEntity lure;
 
     private boolean wasInWater = false;
@@ -101,10 +106,6 @@ public class EntityKoaBase extends Villager {
 
     public boolean jumpingOutOfWater = false;
 
-    public int hitIndex = 0;
-    public int hitIndex2 = 0;
-    public int hitIndex3 = 0;
-    public int hitDelay = 0;
     private long lastTradeTime = 0;
     private static final int TRADE_COOLDOWN = 24000*3;
     private static final int DIVE_TIME_NEEDED = 60*60;
@@ -120,6 +121,20 @@ public class EntityKoaBase extends Villager {
 
     private boolean finalizedSpawn;
 
+    private static final AtomicLong GOAL_SETS_BUILT = new AtomicLong();
+    private static final AtomicLong GOALS_SWAPPED = new AtomicLong();
+
+    //goals that come and go with role and age, kept around to be added back
+    private static final int GOAL_PRIORITY_FISHING = 10;
+    private static final int GOAL_PRIORITY_PLAY = 11;
+    private boolean goalsRegistered;
+    @Nullable
+    private EntityAIGoneFishin fishingGoal;
+    @Nullable
+    private EntityAIPlayKoa playGoal;
+    @Nullable
+    private NearestAttackableTargetGoal<LivingEntity> huntGoal;
+
     public static Predicate<Entity> ENEMY_PREDICATE =
             //TODO: 1.14 fix
             input -> (input instanceof Monster/* && !(input instanceof CreeperEntity)) || input instanceof EntityTropiSkeleton || input instanceof EntityIguana || input instanceof EntityAshen*/);
@@ -148,7 +163,7 @@ public class EntityKoaBase extends Villager {
         super(type, level);
         this.setPersistenceRequired();
 
-        inventory = new SimpleContainer(9);
+        inventory = new KoaInventory(9);
     }
 
     @Override
@@ -431,11 +446,43 @@ public class EntityKoaBase extends Villager {
         /*this.goalSelector.taskEntries.clear();
         this.targetSelector.taskEntries.clear();*/
 
-        this.goalSelector.getRunningGoals().forEach(WrappedGoal::stop);
-        this.targetSelector.getRunningGoals().forEach(WrappedGoal::stop);
+        if (!goalsRegistered) {
+            registerCommonGoals();
+            goalsRegistered = true;
+            GOAL_SETS_BUILT.incrementAndGet();
+        }
 
+        //only the goals that depend on role and age get swapped
+        if (canFish()) {
+            if (fishingGoal == null) {
+                fishingGoal = new EntityAIGoneFishin(this);
+            }
+            toggleGoal(this.goalSelector, GOAL_PRIORITY_FISHING, fishingGoal, true);
+        } else {
+            toggleGoal(this.goalSelector, GOAL_PRIORITY_FISHING, fishingGoal, false);
+        }
 
+        if (isBaby()) {
+            if (playGoal == null) {
+                playGoal = new EntityAIPlayKoa(this, 1.2D);
+            }
+            toggleGoal(this.goalSelector, GOAL_PRIORITY_PLAY, playGoal, true);
+        } else {
+            toggleGoal(this.goalSelector, GOAL_PRIORITY_PLAY, playGoal, false);
+        }
 
+        //i dont think this one works, change to predicate
+        if (canHunt()) {
+            if (huntGoal == null) {
+                huntGoal = new NearestAttackableTargetGoal<>(this, LivingEntity.class, 10, true, false, ENEMY_PREDICATE::apply);
+            }
+            toggleGoal(this.targetSelector, 2, huntGoal, true);
+        } else {
+            toggleGoal(this.targetSelector, 2, huntGoal, false);
+        }
+    }
+
+    private void registerCommonGoals() {
         int curPri = 0;
 
         this.goalSelector.addGoal(curPri++, new FloatGoal(this));
@@ -447,20 +494,7 @@ public class EntityKoaBase extends Villager {
 
         this.goalSelector.addGoal(curPri++, new TradeWithPlayerGoal(this));
 
-        this.goalSelector.addGoal(curPri++, new MeleeAttackGoal(this, 1F, true) {
-            @Override
-            public void start() {
-                super.start();
-                if (this.mob instanceof EntityKoaBase) {
-                    ((EntityKoaBase) this.mob).setFightingItem();
-                }
-            }
-
-            @Override
-            protected double getAttackReachSqr(LivingEntity attackTarget) {
-                return this.mob.getType().getDimensions().width * 2.5F * this.mob.getType().getDimensions().width * 2.5F + attackTarget.getType().getDimensions().width;
-            }
-        });
+        this.goalSelector.addGoal(curPri++, new KoaMeleeAttackGoal(this));
 
         this.goalSelector.addGoal(curPri++, new EntityAITemptHelmet(this, 1.0D, false, TEMPTATION_ITEMS));
 
@@ -469,25 +503,63 @@ public class EntityKoaBase extends Villager {
         this.goalSelector.addGoal(curPri++, new EntityAIChillAtFire(this));
         this.goalSelector.addGoal(curPri++, new EntityAIPartyTime(this));
 
-        if (canFish()) {
-            this.goalSelector.addGoal(curPri++, new EntityAIGoneFishin(this));
-        }
-
-        if (isBaby()) {
-            this.goalSelector.addGoal(curPri++, new EntityAIPlayKoa(this, 1.2D));
-        }
+        //fishing and playing slot in here, see updateUniqueEntityAI
+        curPri = GOAL_PRIORITY_PLAY + 1;
 
         this.goalSelector.addGoal(curPri, new LookAtPlayerGoal(this, Player.class, 3.0F, 1.0F));
         this.goalSelector.addGoal(curPri++, new EntityAIWanderNotLazy(this, 1D, 40));
         this.goalSelector.addGoal(curPri++, new LookAtPlayerGoal(this, Mob.class, 8.0F));
 
         this.targetSelector.addGoal(1, new HurtByTargetGoal(this));
-        //i dont think this one works, change to predicate
-        if (canHunt()) {
-            this.targetSelector.addGoal(2, new NearestAttackableTargetGoal(this, LivingEntity.class, 10, true, false, ENEMY_PREDICATE));
+    }
+
+    private static void toggleGoal(GoalSelector selector, int priority, @Nullable Goal goal, boolean enabled) {
+        if (goal == null) {
+            return;
         }
 
+        boolean present = selector.getAvailableGoals().stream().anyMatch(wrapped -> wrapped.getGoal() == goal);
+        if (enabled && !present) {
+            selector.addGoal(priority, goal);
+            GOALS_SWAPPED.incrementAndGet();
+        } else if (!enabled && present) {
+            //also stops it if running
+            selector.removeGoal(goal);
+            GOALS_SWAPPED.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return How many Koa have had their goals built, since the game started
+     */
+    public static long getGoalSetsBuilt() {
+        return GOAL_SETS_BUILT.get();
+    }
 
+    /**
+     * @return How many times a Koa goal was added or removed because of a role or age change
+     */
+    public static long getGoalsSwapped() {
+        return GOALS_SWAPPED.get();
+    }
+
+    static class KoaMeleeAttackGoal extends MeleeAttackGoal {
+        KoaMeleeAttackGoal(EntityKoaBase koa) {
+            super(koa, 1F, true);
+        }
+
+        @Override
+        public void start() {
+            super.start();
+            if (this.mob instanceof EntityKoaBase) {
+                ((EntityKoaBase) this.mob).setFightingItem();
+            }
+        }
+
+        @Override
+        protected double getAttackReachSqr(LivingEntity attackTarget) {
+            return this.mob.getType().getDimensions().width * 2.5F * this.mob.getType().getDimensions().width * 2.5F + attackTarget.getType().getDimensions().width;
+        }
     }
 
     @Override
@@ -543,11 +615,9 @@ public class EntityKoaBase extends Villager {
         }*/
 
         monitorHomeVillage();
-        //adjust home position to chest right nearby for easy item spawning
-        findAndSetHomeToCloseChest(false);
-        findAndSetFireSource(false);
-        findAndSetDrums(false);
-        findAndSetTownID(false);
+        if ((level.getGameTime()+this.getId()) % (20*30) == 0) {
+            scheduleVillageScan();
+        }
 
     }
 
@@ -951,6 +1021,22 @@ public class EntityKoaBase extends Villager {
         return null;
     }*/
 
+    /**
+     * Queues the periodic search for our chest, fire, drums and village. A whole village spawns in the same
+     * tick, so the searches go through the {@link KoaWorkScheduler} to be spread over the following ticks.
+     */
+    private void scheduleVillageScan() {
+        if (level instanceof ServerLevel serverLevel) {
+            KoaWorkScheduler.get(serverLevel).schedule(this, KoaWorkScheduler.Kind.VILLAGE_SCAN, () -> {
+                //adjust home position to chest right nearby for easy item spawning
+                findAndSetHomeToCloseChest(true);
+                findAndSetFireSource(true);
+                findAndSetDrums(true);
+                findAndSetTownID(true);
+            });
+        }
+    }
+
     public void findAndSetHomeToCloseChest(boolean force) {
 
         if (!force && (level.getGameTime()+this.getId()) % (20*30) != 0) return;
@@ -967,20 +1053,15 @@ public class EntityKoaBase extends Villager {
             }
         }
 
-        if (tryFind) {
+        if (tryFind && level instanceof ServerLevel serverLevel) {
             int range = 20;
-            for (int x = -range; x <= range; x++) {
-                for (int y = -range / 2; y <= range / 2; y++) {
-                    for (int z = -range; z <= range; z++) {
-                        BlockPos pos = this.blockPosition().offset(x, y, z);
-                        BlockEntity tile = level.getBlockEntity(pos);
-                        if (tile instanceof ChestBlockEntity) {
-                            //System.out.println("found chest, updating home position to " + pos);
-                            dbg("found chest, updating home position to " + pos);
-                            restrictTo(pos, MAX_HOME_DISTANCE);
-                            return;
-                        }
-                    }
+            for (BlockPos pos : KoaPoiIndex.get(serverLevel).findAll(serverLevel, KoaPoiIndex.Type.CHEST, this.blockPosition(), range, range / 2)) {
+                BlockEntity tile = level.getBlockEntity(pos);
+                if (tile instanceof ChestBlockEntity) {
+                    //System.out.println("found chest, updating home position to " + pos);
+                    dbg("found chest, updating home position to " + pos);
+                    restrictTo(pos, MAX_HOME_DISTANCE);
+                    return;
                 }
             }
         }
@@ -997,14 +1078,14 @@ public class EntityKoaBase extends Villager {
             villageID = -1;
         }
 
-        if (tryFind) {
-            List<EntityKoaBase> listEnts = level.getEntitiesOfClass(EntityKoaBase.class, new AABB(this.blockPosition()).inflate(20, 20, 20));
-            Collections.shuffle(listEnts);
-            for (EntityKoaBase ent : listEnts) {
-                if (ent.villageID != -1 && ent.villageDimension != null) {
-                    this.setVillageAndDimID(ent.villageID, ent.villageDimension);
-                    break;
+        KoaVillageBoard board = getVillageBoard();
+        if (board != null) {
+            if (tryFind) {
+                if (board.getVillageID() != -1 && board.getVillageDimension() != null) {
+                    this.setVillageAndDimID(board.getVillageID(), board.getVillageDimension());
                 }
+            } else {
+                board.shareVillage(villageID, villageDimension);
             }
         }
 
@@ -1032,55 +1113,33 @@ public class EntityKoaBase extends Villager {
 
         if (tryFind) {
             int range = 20;
-            for (int x = -range; x <= range; x++) {
-                for (int y = -range/2; y <= range/2; y++) {
-                    for (int z = -range; z <= range; z++) {
-                        BlockPos pos = this.blockPosition().offset(x, y, z);
-                        BlockState state = level.getBlockState(pos);
-                        if (state.getBlock() == Blocks.CAMPFIRE) {
-                            dbg("found fire place spot to chill");
-                            setFirelacePos(pos);
-                            return;
-                        }
+            if (level instanceof ServerLevel serverLevel) {
+                BlockPos pos = KoaPoiIndex.get(serverLevel).findNearest(serverLevel, KoaPoiIndex.Type.CAMPFIRE, this.blockPosition(), range, range / 2);
+                if (pos != null) {
+                    dbg("found fire place spot to chill");
+                    setFirelacePos(pos);
+                    KoaVillageBoard board = getVillageBoard();
+                    if (board != null) {
+                        board.shareFireplace(pos);
                     }
+                    return;
                 }
             }
 
-            List<EntityKoaBase> listEnts = level.getEntitiesOfClass(EntityKoaBase.class, new AABB(this.blockPosition()).inflate(20, 20, 20));
-            Collections.shuffle(listEnts);
-            for (EntityKoaBase ent : listEnts) {
-                if (ent.posLastFireplaceFound != null) {
-                    BlockState state = level.getBlockState(ent.posLastFireplaceFound);
-                    if (state.getBlock() == Blocks.CAMPFIRE) {
-                        posLastFireplaceFound = new BlockPos(ent.posLastFireplaceFound);
-                        dbg("found fire place spot to chill from entity");
-                        return;
-                    }
+            KoaVillageBoard board = getVillageBoard();
+            if (board != null && board.getFireplace() != null) {
+                BlockState state = level.getBlockState(board.getFireplace());
+                if (state.getBlock() == Blocks.CAMPFIRE) {
+                    posLastFireplaceFound = board.getFireplace();
+                    dbg("found fire place spot to chill from village");
+                    return;
                 }
             }
         }
     }
 
-    //for other system not used
-    public void syncBPM() {
-        if ((level.getGameTime()+this.getId()) % (20) != 0) return;
-
-        List<EntityKoaBase> listEnts = level.getEntitiesOfClass(EntityKoaBase.class, new AABB(this.blockPosition()).inflate(10, 5, 10));
-        //Collections.shuffle(listEnts);
-        for (EntityKoaBase ent : listEnts) {
-            if (hitDelay != ent.hitDelay) {
-                hitDelay = ent.hitDelay;
-                hitIndex = ent.hitIndex;
-                hitIndex2 = ent.hitIndex2;
-                hitIndex3 = ent.hitIndex3;
-                return;
-            }
-        }
-    }
-
     public boolean isInstrument(BlockPos pos) {
-        final BlockState state = level.getBlockState(pos);
-        return state.is(TropicraftTags.Blocks.BONGOS) || state.is(Blocks.NOTE_BLOCK);
+        return KoaPoiIndex.Type.INSTRUMENT.matches(level.getBlockState(pos));
     }
 
     public void findAndSetDrums(boolean force) {
@@ -1094,6 +1153,9 @@ public class EntityKoaBase extends Villager {
             BlockPos pos = it.next();
             if (!isInstrument(pos)) {
                 it.remove();
+                if (villageBoard != null) {
+                    villageBoard.forgetDrum(pos);
+                }
             }
         }
 
@@ -1101,73 +1163,42 @@ public class EntityKoaBase extends Villager {
             return;
         }
 
-        List<EntityKoaBase> listEnts = level.getEntitiesOfClass(EntityKoaBase.class, new AABB(this.blockPosition()).inflate(20, 20, 20));
-        Collections.shuffle(listEnts);
-        for (EntityKoaBase ent : listEnts) {
-            if (listPosDrums.size() >= MAX_DRUMS) {
-                return;
-            }
-            Iterator<BlockPos> it2 = ent.listPosDrums.iterator();
-            while (it2.hasNext()) {
-                BlockPos pos = it2.next();
-                //IBlockState state = world.getBlockState(pos);
-
-                boolean match = false;
-
-                Iterator<BlockPos> it3 = listPosDrums.iterator();
-                while (it3.hasNext()) {
-                    BlockPos pos2 = it3.next();
-                    //IBlockState state2 = world.getBlockState(pos2);
-                    if (pos.equals(pos2)) {
-                        match = true;
-                        break;
-                    }
-                }
-
-                if (!match) {
-                    //System.out.println("drum pos ent: " + pos);
-                    listPosDrums.add(pos);
-                }
-
+        KoaVillageBoard board = getVillageBoard();
+        if (board != null) {
+            for (BlockPos pos : board.getDrums()) {
                 if (listPosDrums.size() >= MAX_DRUMS) {
                     return;
                 }
+                if (!listPosDrums.contains(pos)) {
+                    //System.out.println("drum pos village: " + pos);
+                    listPosDrums.add(pos);
+                }
             }
         }
 
-        int range = 20;
-        for (int x = -range; x <= range; x++) {
-            for (int y = -range/2; y <= range/2; y++) {
-                for (int z = -range; z <= range; z++) {
-                    BlockPos pos = this.blockPosition().offset(x, y, z);
-                    if (isInstrument(pos)) {
-                    //if (state.getBlock() == BlockRegistry.bongo) {
-
-                        boolean match = false;
-
-                        Iterator<BlockPos> it3 = listPosDrums.iterator();
-                        while (it3.hasNext()) {
-                            BlockPos pos2 = it3.next();
-                            //IBlockState state2 = world.getBlockState(pos2);
-                            if (pos.equals(pos2)) {
-                                match = true;
-                                break;
-                            }
-                        }
+        if (listPosDrums.size() >= MAX_DRUMS) {
+            return;
+        }
 
-                        if (!match) {
-                            //System.out.println("drum pos: " + pos);
-                            listPosDrums.add(pos);
-                        }
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return;
+        }
 
-                        if (listPosDrums.size() >= MAX_DRUMS) {
-                            return;
-                        }
+        int range = 20;
+        for (BlockPos pos : KoaPoiIndex.get(serverLevel).findAll(serverLevel, KoaPoiIndex.Type.INSTRUMENT, this.blockPosition(), range, range / 2)) {
+            if (!listPosDrums.contains(pos)) {
+                //System.out.println("drum pos: " + pos);
+                listPosDrums.add(pos);
+            }
 
-                    }
-                }
+            if (listPosDrums.size() >= MAX_DRUMS) {
+                break;
             }
         }
+
+        if (board != null) {
+            board.shareDrums(listPosDrums);
+        }
     }
 
     /*public boolean tryGetVillage() {
@@ -1184,62 +1215,10 @@ public class EntityKoaBase extends Villager {
 
     public boolean tryDumpInventoryIntoHomeChest() {
         BlockEntity tile = level.getBlockEntity(getRestrictCenter());
-        if (tile instanceof ChestBlockEntity) {
-            ChestBlockEntity chest = (ChestBlockEntity)tile;
-
-            for (int i = 0; i < this.inventory.getContainerSize(); ++i) {
-                ItemStack itemstack = this.inventory.getItem(i);
-
-                if (!itemstack.isEmpty()) {
-                    this.inventory.setItem(i, this.addItem(chest, itemstack));
-                }
-            }
+        if (tile instanceof ChestBlockEntity chest) {
+            return this.inventory.transferTo(chest);
         }
-        //maybe return false if inventory not emptied entirely
-        return true;
-    }
-
-    @Nullable
-    public ItemStack addItem(ChestBlockEntity chest, ItemStack stack)
-    {
-        ItemStack itemstack = stack.copy();
-
-        for (int i = 0; i < chest.getContainerSize(); ++i)
-        {
-            ItemStack itemstack1 = chest.getItem(i);
-
-            if (itemstack1.isEmpty())
-            {
-                chest.setItem(i, itemstack);
-                chest.setChanged();
-                return ItemStack.EMPTY;
-            }
-
-            if (ItemStack.isSame(itemstack1, itemstack))
-            {
-                int j = Math.min(chest.getMaxStackSize(), itemstack1.getMaxStackSize());
-                int k = Math.min(itemstack.getCount(), j - itemstack1.getCount());
-
-                if (k > 0)
-                {
-                    itemstack1.grow(k);
-                    itemstack.shrink(k);
-
-                    if (itemstack.getCount() <= 0)
-                    {
-                        chest.setChanged();
-                        return ItemStack.EMPTY;
-                    }
-                }
-            }
-        }
-
-        if (itemstack.getCount() != stack.getCount())
-        {
-            chest.setChanged();
-        }
-
-        return itemstack;
+        return false;
     }
 
     public void setFirelacePos(BlockPos pos) {
@@ -1255,9 +1234,7 @@ public class EntityKoaBase extends Villager {
     public void aiStep() {
         if (finalizedSpawn) {
             finalizedSpawn = false;
-            findAndSetHomeToCloseChest(true);
-            findAndSetFireSource(true);
-            findAndSetDrums(true);
+            scheduleVillageScan();
         }
 
         this.updateSwingTime();
@@ -1436,6 +1413,39 @@ public class EntityKoaBase extends Villager {
         return closestVillage;
     }*/
 
+    /**
+     * @return The board shared by every Koa with the same home chest, or null if this Koa has no home yet
+     */
+    @Nullable
+    public KoaVillageBoard getVillageBoard() {
+        if (!(level instanceof ServerLevel serverLevel)) {
+            return null;
+        }
+
+        BlockPos home = getRestrictCenter();
+        if (villageBoard != null && villageBoard.getHome().equals(home)) {
+            return villageBoard;
+        }
+
+        if (villageBoard != null) {
+            villageBoard.unsubscribe(this);
+            villageBoard = null;
+        }
+        if (!home.equals(BlockPos.ZERO)) {
+            villageBoard = KoaVillageBoard.subscribe(serverLevel, home, this);
+        }
+        return villageBoard;
+    }
+
+    @Override
+    public void onRemovedFromWorld() {
+        super.onRemovedFromWorld();
+        if (villageBoard != null) {
+            villageBoard.unsubscribe(this);
+            villageBoard = null;
+        }
+    }
+
     @Override
     public void remove(Entity.RemovalReason pReason) {
         super.remove(pReason);
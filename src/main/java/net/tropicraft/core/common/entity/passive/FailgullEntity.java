@@ -27,7 +27,9 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.pathfinder.BlockPathTypes;
 import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
+import net.tropicraft.core.common.entity.EntitySpatialHash;
 import net.tropicraft.core.common.entity.TropicraftEntities;
+import net.tropicraft.core.common.entity.ai.flock.Flock;
 import net.tropicraft.core.common.item.TropicraftItems;
 
 import javax.annotation.Nullable;
@@ -38,6 +40,14 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 	private boolean isFlockLeader;
 	private static final EntityDataAccessor<Optional<UUID>> FLOCK_LEADER_UUID = SynchedEntityData.defineId(FailgullEntity.class, EntityDataSerializers.OPTIONAL_UUID);
 
+	private static final Flock.Settings FLOCK_SETTINGS = new Flock.Settings(16, 2.0, 2.0, 8.0, 0.15, 0.0);
+
+	// The flock we lead, or follow the leader of
+	@Nullable
+	private Flock<FailgullEntity> flock;
+	// Set when flocking would take us into a block, so we path to the leader instead
+	private boolean flockBlocked;
+
 	public FailgullEntity(EntityType<? extends FailgullEntity> type, Level world) {
 		super(type, world);
 		xpReward = 1;
@@ -168,6 +178,29 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 		return null;
 	}
 
+	@Nullable
+	private Flock<FailgullEntity> getOrCreateFlock() {
+		if (flock == null && level instanceof ServerLevel serverLevel) {
+			flock = new Flock<>(serverLevel, FLOCK_SETTINGS, FlockFlying.INSTANCE, this);
+		}
+		return flock;
+	}
+
+	private void joinFlock(final FailgullEntity leader) {
+		if (flock != null) {
+			return;
+		}
+
+		final Flock<FailgullEntity> leaderFlock = leader.getOrCreateFlock();
+		if (leaderFlock != null && leaderFlock.add(this)) {
+			flock = leaderFlock;
+		}
+	}
+
+	private boolean isFollowingFlock() {
+		return flock != null && flock.getLeader() != this;
+	}
+
 	@Nullable
 	private BlockPos getRandomLocation() {
 		final Random random = getRandom();
@@ -210,7 +243,8 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 
 		@Override
 		public boolean canUse() {
-			return canFollow() && getNavigation().isDone() && FailgullEntity.this.random.nextInt(10) == 0;
+			// Once in the leader's flock, it steers us unless there is something in the way
+			return canFollow() && (!isFollowingFlock() || flockBlocked) && getNavigation().isDone() && FailgullEntity.this.random.nextInt(10) == 0;
 		}
 
 		@Override
@@ -222,7 +256,10 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 		public void start() {
 			final Entity flockLeader = getFlockLeader();
 			final PathNavigation navigator = getNavigation();
-			if (flockLeader != null && flockLeader.getType() == TropicraftEntities.FAILGULL.get()) {
+			if (flockLeader instanceof FailgullEntity leader && flockLeader.getType() == TropicraftEntities.FAILGULL.get()) {
+				if (leader.getIsFlockLeader()) {
+					joinFlock(leader);
+				}
 				navigator.moveTo(navigator.createPath(flockLeader.blockPosition(), 1), 1.0D);
 				return;
 			}
@@ -276,6 +313,11 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 				return false;
 			}
 
+			// The flock is disbanded when its leader goes, so there is no need to look the leader up
+			if (mob.isFollowingFlock()) {
+				return false;
+			}
+
 			final Entity flockLeader = mob.getFlockLeader();
 			return flockLeader == null || !flockLeader.isAlive();
 		}
@@ -300,7 +342,7 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 
 		@Override
 		public void start() {
-			List<FailgullEntity> list = mob.level.getEntitiesOfClass(FailgullEntity.class, mob.getBoundingBox().inflate(10D, 10D, 10D));
+			List<FailgullEntity> list = EntitySpatialHash.getEntities(mob.level, FailgullEntity.class, mob.getBoundingBox().inflate(10D, 10D, 10D));
 			list.remove(mob);
 
 			final Optional<FailgullEntity> oldest = list.stream().min(Comparator.comparingInt(FailgullEntity::getId));
@@ -309,9 +351,38 @@ public class FailgullEntity extends Animal implements FlyingAnimal {
 				final FailgullEntity oldestFailgull = oldest.get();
 				oldestFailgull.setIsFlockLeader(true);
 				oldestFailgull.setFlockLeader(Optional.empty());
+				// Our own followers find the new leader through their leader's leader
+				if (mob.flock != null && mob.flock.getLeader() == mob) {
+					mob.flock.disband();
+					mob.flock = null;
+				}
 				mob.setIsFlockLeader(false);
 				mob.setFlockLeader(Optional.of(oldestFailgull.getUUID()));
+				mob.joinFlock(oldestFailgull);
+			}
+		}
+	}
+
+	private static class FlockFlying implements Flock.Behavior<FailgullEntity> {
+		static final FlockFlying INSTANCE = new FlockFlying();
+
+		@Override
+		public void steer(Flock<FailgullEntity> flock, FailgullEntity member, Vec3 direction) {
+			if (direction.lengthSqr() < 1.0E-4) {
+				return;
+			}
+
+			final Vec3 target = member.position().add(direction.normalize().scale(3.0));
+			member.flockBlocked = !member.level.isEmptyBlock(new BlockPos(target));
+			if (!member.flockBlocked && member.getNavigation().isDone()) {
+				member.getMoveControl().setWantedPosition(target.x, target.y, target.z, 1.0D);
 			}
 		}
+
+		@Override
+		public void onLeave(FailgullEntity member) {
+			member.flock = null;
+			member.flockBlocked = false;
+		}
 	}
 }
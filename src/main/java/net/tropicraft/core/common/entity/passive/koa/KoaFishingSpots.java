@@ -0,0 +1,264 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.levelgen.Heightmap;
+import net.minecraft.world.level.material.Material;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.Util;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Places for fishing Koa to go: deep open water to cast into, and the land along its shore to get back
+ * out of it. The candidates of a chunk are worked out from its heightmap the first time a Koa looks
+ * there, and shared by every fisher in the dimension until a block near the surface of the chunk changes.
+ * <p>
+ * Lookups still check the current blocks, so a stale entry is never handed out.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class KoaFishingSpots {
+    public enum Kind {
+        DEEP_WATER,
+        SHORE
+    }
+
+    private static final Map<ResourceKey<Level>, KoaFishingSpots> SPOTS = new HashMap<>();
+
+    // Koa try spots close to them first, like they used to with the random search
+    private static final int NEAR_RANGE = 10;
+    // How many stale spots to get past before giving up until the next search
+    private static final int MAX_ATTEMPTS = 4;
+
+    private final Long2ObjectMap<ChunkSpots> chunks = new Long2ObjectOpenHashMap<>();
+
+    private record ChunkSpots(long[] water, long[] shore) {
+        long[] get(Kind kind) {
+            return kind == Kind.DEEP_WATER ? water : shore;
+        }
+    }
+
+    public static KoaFishingSpots get(ServerLevel level) {
+        return SPOTS.computeIfAbsent(level.dimension(), k -> new KoaFishingSpots());
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            KoaFishingSpots spots = SPOTS.get(level.dimension());
+            if (spots != null) {
+                spots.chunks.remove(event.getChunk().getPos().toLong());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            SPOTS.remove(level.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        invalidate(event.getWorld(), event.getPos());
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        // Fired for every notifying block change, including water spreading or draining away
+        invalidate(event.getWorld(), event.getPos());
+    }
+
+    private static void invalidate(LevelAccessor world, BlockPos pos) {
+        if (!(world instanceof ServerLevel level)) {
+            return;
+        }
+
+        KoaFishingSpots spots = SPOTS.get(level.dimension());
+        if (spots == null || spots.chunks.isEmpty()) {
+            return;
+        }
+
+        // Only the top couple of blocks of a column decide whether it is a spot
+        if (pos.getY() < level.getHeight(Heightmap.Types.MOTION_BLOCKING, pos.getX(), pos.getZ()) - 2) {
+            return;
+        }
+
+        // Shore spots look at the columns next to them, which may be in the neighbouring chunk
+        spots.chunks.remove(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            int x = SectionPos.blockToSectionCoord(pos.getX() + direction.getStepX());
+            int z = SectionPos.blockToSectionCoord(pos.getZ() + direction.getStepZ());
+            spots.chunks.remove(ChunkPos.asLong(x, z));
+        }
+    }
+
+    /**
+     * Picks a random spot of the given kind within range of the origin, preferring ones close by.
+     * Only loaded chunks are searched.
+     *
+     * @param range Horizontal distance from the origin to search in each direction, with half of it vertically
+     */
+    @Nullable
+    public BlockPos find(ServerLevel level, Kind kind, BlockPos origin, int range, Random random) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            BlockPos pos = pick(level, kind, origin, range, random);
+            if (pos == null || isValid(level, kind, pos)) {
+                return pos;
+            }
+
+            // Something changed without us hearing about it, so work the chunk out again before trying another
+            chunks.remove(ChunkPos.asLong(SectionPos.blockToSectionCoord(pos.getX()), SectionPos.blockToSectionCoord(pos.getZ())));
+        }
+        return null;
+    }
+
+    /**
+     * Draws one candidate in range by reservoir sampling as they are walked over, so nothing is collected
+     * along the way. A near candidate is picked if there are any, otherwise a far one.
+     */
+    @Nullable
+    private BlockPos pick(ServerLevel level, Kind kind, BlockPos origin, int range, Random random) {
+        long near = 0;
+        long far = 0;
+        int nearCount = 0;
+        int farCount = 0;
+
+        int rangeY = range / 2;
+        int minChunkX = SectionPos.blockToSectionCoord(origin.getX() - range);
+        int maxChunkX = SectionPos.blockToSectionCoord(origin.getX() + range);
+        int minChunkZ = SectionPos.blockToSectionCoord(origin.getZ() - range);
+        int maxChunkZ = SectionPos.blockToSectionCoord(origin.getZ() + range);
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                ChunkSpots spots = getOrBuild(level, chunkX, chunkZ);
+                if (spots == null) {
+                    continue;
+                }
+
+                for (long packed : spots.get(kind)) {
+                    int dx = Math.abs(BlockPos.getX(packed) - origin.getX());
+                    int dy = Math.abs(BlockPos.getY(packed) - origin.getY());
+                    int dz = Math.abs(BlockPos.getZ(packed) - origin.getZ());
+                    if (dx > range || dz > range || dy > rangeY) {
+                        continue;
+                    }
+                    if (dx <= NEAR_RANGE && dz <= NEAR_RANGE) {
+                        if (random.nextInt(++nearCount) == 0) {
+                            near = packed;
+                        }
+                    } else if (nearCount == 0 && random.nextInt(++farCount) == 0) {
+                        far = packed;
+                    }
+                }
+            }
+        }
+
+        if (nearCount > 0) {
+            return BlockPos.of(near);
+        }
+        return farCount > 0 ? BlockPos.of(far) : null;
+    }
+
+    private static boolean isValid(ServerLevel level, Kind kind, BlockPos pos) {
+        if (kind == Kind.DEEP_WATER) {
+            return Util.isDeepWater(level, pos);
+        }
+        return Util.isLand(level, pos) && level.isEmptyBlock(pos.above());
+    }
+
+    @Nullable
+    private ChunkSpots getOrBuild(ServerLevel level, int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        ChunkSpots spots = chunks.get(key);
+        if (spots == null) {
+            LevelChunk chunk = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+            if (chunk == null) {
+                return null;
+            }
+            spots = build(level, chunk);
+            chunks.put(key, spots);
+        }
+        return spots;
+    }
+
+    private static ChunkSpots build(ServerLevel level, LevelChunk chunk) {
+        LongArrayList water = new LongArrayList();
+        LongArrayList shore = new LongArrayList();
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+        BlockPos.MutableBlockPos check = new BlockPos.MutableBlockPos();
+
+        ChunkPos chunkPos = chunk.getPos();
+        for (int z = 0; z < 16; z++) {
+            for (int x = 0; x < 16; x++) {
+                int y = chunk.getHeight(Heightmap.Types.MOTION_BLOCKING, x, z);
+                pos.set(chunkPos.getBlockX(x), y, chunkPos.getBlockZ(z));
+                BlockState state = chunk.getBlockState(pos);
+                if (isWater(state)) {
+                    if (isWater(chunk.getBlockState(check.setWithOffset(pos, Direction.DOWN))) && isClearAbove(chunk, pos, check)) {
+                        water.add(pos.asLong());
+                    }
+                } else if (state.getMaterial().isSolid() && chunk.getBlockState(check.setWithOffset(pos, Direction.UP)).isAir() && bordersWater(level, chunk, pos, check)) {
+                    shore.add(pos.asLong());
+                }
+            }
+        }
+
+        return new ChunkSpots(water.toLongArray(), shore.toLongArray());
+    }
+
+    private static boolean isWater(BlockState state) {
+        return state.getMaterial() == Material.WATER;
+    }
+
+    private static boolean isClearAbove(ChunkAccess chunk, BlockPos pos, BlockPos.MutableBlockPos check) {
+        for (int i = 1; i <= 3; i++) {
+            if (!chunk.getBlockState(check.setWithOffset(pos, 0, i, 0)).isAir()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean bordersWater(ServerLevel level, LevelChunk chunk, BlockPos pos, BlockPos.MutableBlockPos check) {
+        for (Direction direction : Direction.Plane.HORIZONTAL) {
+            check.setWithOffset(pos, direction);
+            ChunkAccess neighbor = chunk;
+            int chunkX = SectionPos.blockToSectionCoord(check.getX());
+            int chunkZ = SectionPos.blockToSectionCoord(check.getZ());
+            if (chunkX != chunk.getPos().x || chunkZ != chunk.getPos().z) {
+                neighbor = level.getChunkSource().getChunkNow(chunkX, chunkZ);
+                if (neighbor == null) {
+                    continue;
+                }
+            }
+
+            check.setY(neighbor.getHeight(Heightmap.Types.MOTION_BLOCKING, check.getX(), check.getZ()));
+            if (isWater(neighbor.getBlockState(check))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
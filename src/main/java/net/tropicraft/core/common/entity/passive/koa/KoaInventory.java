@@ -0,0 +1,218 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.world.Container;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.BitSet;
+
+/**
+ * The inventory a Koa carries around, which keeps track of which slots are free, which hold food, and
+ * which slots each kind of item is in. The index is updated slot by slot as the container is changed,
+ * so finding food or room for a stack doesn't need to go through every slot.
+ * <p>
+ * Stacks emptied in place, without going back through the container, are noticed the next time their
+ * slot is looked up.
+ */
+public class KoaInventory extends SimpleContainer {
+    private final Item[] slotItems;
+    private final BitSet freeSlots = new BitSet();
+    private final BitSet foodSlots = new BitSet();
+    private final Reference2ObjectMap<Item, BitSet> slotsByItem = new Reference2ObjectOpenHashMap<>();
+
+    public KoaInventory(int size) {
+        super(size);
+        slotItems = new Item[size];
+        freeSlots.set(0, size);
+    }
+
+    @Override
+    public void setItem(int slot, ItemStack stack) {
+        super.setItem(slot, stack);
+        index(slot);
+    }
+
+    @Override
+    public ItemStack removeItem(int slot, int count) {
+        ItemStack removed = super.removeItem(slot, count);
+        index(slot);
+        return removed;
+    }
+
+    @Override
+    public ItemStack removeItemNoUpdate(int slot) {
+        ItemStack removed = super.removeItemNoUpdate(slot);
+        index(slot);
+        return removed;
+    }
+
+    @Override
+    public void clearContent() {
+        super.clearContent();
+        for (int slot = 0; slot < slotItems.length; slot++) {
+            index(slot);
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (int slot = freeSlots.nextClearBit(0); slot < slotItems.length; slot = freeSlots.nextClearBit(slot + 1)) {
+            if (!getItem(slot).isEmpty()) {
+                return false;
+            }
+            index(slot);
+        }
+        return true;
+    }
+
+    @Override
+    public ItemStack addItem(ItemStack stack) {
+        ItemStack remaining = stack.copy();
+        int limit = Math.min(getMaxStackSize(), remaining.getMaxStackSize());
+
+        BitSet slots = slotsByItem.get(remaining.getItem());
+        if (slots != null) {
+            for (int slot = slots.nextSetBit(0); slot >= 0 && !remaining.isEmpty(); slot = slots.nextSetBit(slot + 1)) {
+                ItemStack existing = getItem(slot);
+                if (ItemStack.isSameItemSameTags(existing, remaining)) {
+                    int moved = Math.min(remaining.getCount(), limit - existing.getCount());
+                    if (moved > 0) {
+                        existing.grow(moved);
+                        remaining.shrink(moved);
+                        setChanged();
+                    }
+                }
+            }
+        }
+
+        while (!remaining.isEmpty()) {
+            int slot = findFreeSlot();
+            if (slot < 0) {
+                break;
+            }
+            setItem(slot, remaining.split(limit));
+        }
+
+        return remaining.isEmpty() ? ItemStack.EMPTY : remaining;
+    }
+
+    /**
+     * @return The first slot holding something edible, or -1 if there isn't any food
+     */
+    public int findFood() {
+        for (int slot = foodSlots.nextSetBit(0); slot >= 0; slot = foodSlots.nextSetBit(slot + 1)) {
+            ItemStack stack = getItem(slot);
+            if (!stack.isEmpty() && stack.getItem().isEdible()) {
+                return slot;
+            }
+            index(slot);
+        }
+        return -1;
+    }
+
+    /**
+     * Moves as much of this inventory as fits into the target, topping up matching stacks there before
+     * filling its empty slots. The target is only gone through once, however many stacks are moved.
+     *
+     * @return True if everything was moved
+     */
+    public boolean transferTo(Container target) {
+        if (isEmpty()) {
+            return true;
+        }
+
+        Reference2ObjectMap<Item, IntList> targetSlots = new Reference2ObjectOpenHashMap<>();
+        IntList targetFree = new IntArrayList();
+        for (int i = 0; i < target.getContainerSize(); i++) {
+            ItemStack stack = target.getItem(i);
+            if (stack.isEmpty()) {
+                targetFree.add(i);
+            } else if (stack.getCount() < Math.min(target.getMaxStackSize(), stack.getMaxStackSize())) {
+                targetSlots.computeIfAbsent(stack.getItem(), k -> new IntArrayList()).add(i);
+            }
+        }
+
+        boolean changed = false;
+        int nextFree = 0;
+        for (int slot = freeSlots.nextClearBit(0); slot < slotItems.length; slot = freeSlots.nextClearBit(slot + 1)) {
+            ItemStack stack = getItem(slot);
+            if (stack.isEmpty()) {
+                index(slot);
+                continue;
+            }
+
+            int limit = Math.min(target.getMaxStackSize(), stack.getMaxStackSize());
+            IntList partial = targetSlots.get(stack.getItem());
+            if (partial != null) {
+                for (int i = 0; i < partial.size() && !stack.isEmpty(); i++) {
+                    ItemStack existing = target.getItem(partial.getInt(i));
+                    if (ItemStack.isSameItemSameTags(existing, stack)) {
+                        int moved = Math.min(stack.getCount(), limit - existing.getCount());
+                        if (moved > 0) {
+                            existing.grow(moved);
+                            stack.shrink(moved);
+                            changed = true;
+                        }
+                    }
+                }
+            }
+
+            while (!stack.isEmpty() && nextFree < targetFree.size()) {
+                int targetSlot = targetFree.getInt(nextFree++);
+                ItemStack placed = stack.split(limit);
+                target.setItem(targetSlot, placed);
+                changed = true;
+                // What is left of this stack can still top up the one just placed
+                if (placed.getCount() < limit) {
+                    targetSlots.computeIfAbsent(placed.getItem(), k -> new IntArrayList()).add(targetSlot);
+                }
+            }
+
+            setItem(slot, stack.isEmpty() ? ItemStack.EMPTY : stack);
+        }
+
+        if (changed) {
+            target.setChanged();
+        }
+        return isEmpty();
+    }
+
+    private int findFreeSlot() {
+        for (int slot = freeSlots.nextSetBit(0); slot >= 0; slot = freeSlots.nextSetBit(slot + 1)) {
+            if (getItem(slot).isEmpty()) {
+                return slot;
+            }
+            index(slot);
+        }
+        return -1;
+    }
+
+    private void index(int slot) {
+        Item previous = slotItems[slot];
+        if (previous != null) {
+            BitSet slots = slotsByItem.get(previous);
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                slotsByItem.remove(previous);
+            }
+        }
+
+        ItemStack stack = getItem(slot);
+        if (stack.isEmpty()) {
+            slotItems[slot] = null;
+            freeSlots.set(slot);
+            foodSlots.clear(slot);
+        } else {
+            Item item = stack.getItem();
+            slotItems[slot] = item;
+            freeSlots.clear(slot);
+            foodSlots.set(slot, item.isEdible());
+            slotsByItem.computeIfAbsent(item, k -> new BitSet()).set(slot);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import com.mojang.authlib.GameProfile;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.NoteBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.tropicraft.core.common.block.BongoDrumBlock;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Keeps the beat for the Koa partying in a village. The beat is worked out once per tick for the whole
+ * village, so every drummer plays in step, and each drum is looked up and played at most once per beat
+ * however many Koa are gathered around it.
+ */
+public final class KoaPartyConductor {
+    // Ticks between hits for each pattern, played in turn, before slowing down for how early in the night it is
+    private static final int[][] PATTERNS = {
+            {9, 3, 3, 3, 6},
+            {9, 3, 3, 3, 6},
+            {9, 3, 3, 3, 6},
+            {9, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 3, 12}
+    };
+
+    private static final int NIGHT_START = 12500;
+    private static final int NIGHT_END = 23500;
+    private static final int PHASES = 4;
+
+    private static final GameProfile KOA_PROFILE = new GameProfile(UUID.fromString("e517cf6a-ce31-4ac8-b48d-44b4f0f918a7"), "tropicraftKoa");
+
+    private long lastTick = Long.MIN_VALUE;
+    private boolean beat;
+    private int pattern;
+    private int step;
+
+    private final Map<BlockPos, BlockState> drumStates = new HashMap<>();
+    private final Set<BlockPos> playedDrums = new HashSet<>();
+
+    /**
+     * @return True if the drums are hit this tick
+     */
+    public boolean isBeat(Level level) {
+        long time = level.getGameTime();
+        if (time != lastTick) {
+            lastTick = time;
+            drumStates.clear();
+            playedDrums.clear();
+
+            beat = time % ((long) getSlowdown(level) * PATTERNS[pattern][step]) == 0;
+            if (beat && ++step >= PATTERNS[pattern].length) {
+                step = 0;
+                pattern = (pattern + 1) % PATTERNS.length;
+            }
+        }
+        return beat;
+    }
+
+    /**
+     * Plays the drum on the beat, unless another Koa already has.
+     *
+     * @return True if the drum can be played, so the Koa should swing at it
+     */
+    public boolean hitDrum(ServerLevel level, BlockPos pos, Random random) {
+        BlockState state = drumStates.computeIfAbsent(pos, level::getBlockState);
+        if (!(state.getBlock() instanceof BongoDrumBlock) && !(state.getBlock() instanceof NoteBlock)) {
+            return false;
+        }
+
+        // Every so often a Koa misses a beat
+        if (playedDrums.add(pos) && random.nextInt(10) != 0) {
+            if (state.getBlock() instanceof BongoDrumBlock bongo) {
+                // Hit anywhere on the skin, the same pitch range a player gets
+                bongo.playBongoSound(level, pos, state, 1.0F + random.nextFloat());
+            } else {
+                state.getBlock().attack(state, level, pos, FakePlayerFactory.get(level, KOA_PROFILE));
+            }
+        }
+        return true;
+    }
+
+    private static int getSlowdown(Level level) {
+        int phaseSplit = (NIGHT_END - NIGHT_START) / PHASES;
+        int nightTime = (int) (level.getDayTime() % 24000) - NIGHT_START;
+        if (nightTime > phaseSplit * 3) {
+            return 1;
+        } else if (nightTime > phaseSplit * 2) {
+            return 2;
+        } else if (nightTime > phaseSplit) {
+            return 3;
+        }
+        return 4;
+    }
+}
@@ -0,0 +1,288 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.LevelAccessor;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.ChestBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraftforge.event.world.BlockEvent;
+import net.minecraftforge.event.world.ChunkEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.TropicraftTags;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Index of the blocks Koa look for around their village, by chunk section, so they can query a radius
+ * instead of scanning every block around them.
+ * <p>
+ * Sections are indexed as their chunks load, and kept current as blocks are placed, broken or otherwise
+ * changed. Lookups still check the current block, so a stale entry is never handed out.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class KoaPoiIndex {
+    public enum Type {
+        CHEST(state -> state.getBlock() instanceof ChestBlock),
+        CAMPFIRE(state -> state.is(Blocks.CAMPFIRE)),
+        INSTRUMENT(state -> state.is(TropicraftTags.Blocks.BONGOS) || state.is(Blocks.NOTE_BLOCK));
+
+        private static final Type[] VALUES = values();
+
+        private final Predicate<BlockState> predicate;
+
+        Type(Predicate<BlockState> predicate) {
+            this.predicate = predicate;
+        }
+
+        public boolean matches(BlockState state) {
+            return predicate.test(state);
+        }
+
+        @Nullable
+        static Type of(BlockState state) {
+            for (Type type : VALUES) {
+                if (type.matches(state)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final Map<ResourceKey<Level>, KoaPoiIndex> INDICES = new HashMap<>();
+
+    private final Map<Type, Long2ObjectMap<LongSet>> sections = new EnumMap<>(Type.class);
+    // The indexed sections of each chunk, of any type, so a chunk unloading only has to look at its own
+    private final Long2ObjectMap<LongSet> sectionsByChunk = new Long2ObjectOpenHashMap<>();
+
+    private KoaPoiIndex() {
+        for (Type type : Type.VALUES) {
+            sections.put(type, new Long2ObjectOpenHashMap<>());
+        }
+    }
+
+    public static KoaPoiIndex get(ServerLevel level) {
+        return INDICES.computeIfAbsent(level.dimension(), k -> new KoaPoiIndex());
+    }
+
+    @SubscribeEvent
+    public static void onChunkLoad(ChunkEvent.Load event) {
+        if (!(event.getWorld() instanceof ServerLevel level) || !(event.getChunk() instanceof LevelChunk chunk)) {
+            return;
+        }
+
+        KoaPoiIndex index = null;
+        BlockPos.MutableBlockPos pos = new BlockPos.MutableBlockPos();
+
+        LevelChunkSection[] chunkSections = chunk.getSections();
+        for (int i = 0; i < chunkSections.length; i++) {
+            LevelChunkSection section = chunkSections[i];
+            // Only sections whose palette contains something a Koa cares about are worth looking at block by block
+            if (section.hasOnlyAir() || !section.getStates().maybeHas(state -> Type.of(state) != null)) {
+                continue;
+            }
+
+            if (index == null) {
+                index = get(level);
+            }
+
+            int minY = chunk.getMinBuildHeight() + (i << 4);
+            for (int y = 0; y < 16; y++) {
+                for (int z = 0; z < 16; z++) {
+                    for (int x = 0; x < 16; x++) {
+                        Type type = Type.of(section.getBlockState(x, y, z));
+                        if (type != null) {
+                            index.add(type, pos.set(chunk.getPos().getBlockX(x), minY + y, chunk.getPos().getBlockZ(z)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onChunkUnload(ChunkEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            KoaPoiIndex index = INDICES.get(level.dimension());
+            if (index != null) {
+                index.removeChunk(event.getChunk().getPos().x, event.getChunk().getPos().z);
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            INDICES.remove(level.dimension());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onBlockPlaced(BlockEvent.EntityPlaceEvent event) {
+        update(event.getWorld(), event.getPos(), event.getPlacedBlock());
+    }
+
+    @SubscribeEvent
+    public static void onNeighborNotify(BlockEvent.NeighborNotifyEvent event) {
+        // Fired for every notifying block change, which covers blocks broken or placed without a player
+        update(event.getWorld(), event.getPos(), event.getState());
+    }
+
+    private static void update(LevelAccessor world, BlockPos pos, BlockState state) {
+        if (!(world instanceof ServerLevel level)) {
+            return;
+        }
+
+        KoaPoiIndex index = INDICES.get(level.dimension());
+        Type type = Type.of(state);
+        if (index == null) {
+            if (type == null) {
+                return;
+            }
+            index = get(level);
+        }
+
+        for (Type other : Type.VALUES) {
+            if (other != type) {
+                index.remove(other, pos);
+            }
+        }
+        if (type != null) {
+            index.add(type, pos);
+        }
+    }
+
+    public void add(Type type, BlockPos pos) {
+        long key = SectionPos.asLong(pos);
+        Long2ObjectMap<LongSet> byType = sections.get(type);
+        LongSet section = byType.get(key);
+        if (section == null) {
+            section = new LongOpenHashSet();
+            byType.put(key, section);
+            sectionsByChunk.computeIfAbsent(ChunkPos.asLong(pos), k -> new LongOpenHashSet()).add(key);
+        }
+        section.add(pos.asLong());
+    }
+
+    public void remove(Type type, BlockPos pos) {
+        Long2ObjectMap<LongSet> byType = sections.get(type);
+        long key = SectionPos.asLong(pos);
+        LongSet section = byType.get(key);
+        if (section != null && section.remove(pos.asLong()) && section.isEmpty()) {
+            byType.remove(key);
+            if (!isIndexed(key)) {
+                long chunkKey = ChunkPos.asLong(pos);
+                LongSet chunkSections = sectionsByChunk.get(chunkKey);
+                if (chunkSections != null && chunkSections.remove(key) && chunkSections.isEmpty()) {
+                    sectionsByChunk.remove(chunkKey);
+                }
+            }
+        }
+    }
+
+    private boolean isIndexed(long sectionKey) {
+        for (Long2ObjectMap<LongSet> byType : sections.values()) {
+            if (byType.containsKey(sectionKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeChunk(int chunkX, int chunkZ) {
+        LongSet chunkSections = sectionsByChunk.remove(ChunkPos.asLong(chunkX, chunkZ));
+        if (chunkSections == null) {
+            return;
+        }
+        for (Long2ObjectMap<LongSet> byType : sections.values()) {
+            LongIterator iterator = chunkSections.iterator();
+            while (iterator.hasNext()) {
+                byType.remove(iterator.nextLong());
+            }
+        }
+    }
+
+    /**
+     * Finds every indexed block of the given type within a box around the origin that still matches,
+     * closest first. Entries that no longer match are dropped from the index.
+     *
+     * @param rangeXZ Horizontal distance from the origin to search in each direction
+     * @param rangeY Vertical distance from the origin to search in each direction
+     */
+    public List<BlockPos> findAll(ServerLevel level, Type type, BlockPos origin, int rangeXZ, int rangeY) {
+        List<BlockPos> found = new ArrayList<>();
+        List<BlockPos> stale = new ArrayList<>();
+        Long2ObjectMap<LongSet> byType = sections.get(type);
+
+        int minX = origin.getX() - rangeXZ;
+        int maxX = origin.getX() + rangeXZ;
+        int minY = origin.getY() - rangeY;
+        int maxY = origin.getY() + rangeY;
+        int minZ = origin.getZ() - rangeXZ;
+        int maxZ = origin.getZ() + rangeXZ;
+
+        for (int sectionX = SectionPos.blockToSectionCoord(minX); sectionX <= SectionPos.blockToSectionCoord(maxX); sectionX++) {
+            for (int sectionY = SectionPos.blockToSectionCoord(minY); sectionY <= SectionPos.blockToSectionCoord(maxY); sectionY++) {
+                for (int sectionZ = SectionPos.blockToSectionCoord(minZ); sectionZ <= SectionPos.blockToSectionCoord(maxZ); sectionZ++) {
+                    LongSet section = byType.get(SectionPos.asLong(sectionX, sectionY, sectionZ));
+                    if (section == null) {
+                        continue;
+                    }
+
+                    LongIterator iterator = section.iterator();
+                    while (iterator.hasNext()) {
+                        long packed = iterator.nextLong();
+                        int x = BlockPos.getX(packed);
+                        int y = BlockPos.getY(packed);
+                        int z = BlockPos.getZ(packed);
+                        if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ) {
+                            continue;
+                        }
+
+                        BlockPos pos = BlockPos.of(packed);
+                        if (type.matches(level.getBlockState(pos))) {
+                            found.add(pos);
+                        } else {
+                            stale.add(pos);
+                        }
+                    }
+                }
+            }
+        }
+
+        for (BlockPos pos : stale) {
+            remove(type, pos);
+        }
+
+        found.sort(Comparator.comparingDouble(pos -> pos.distSqr(origin)));
+        return found;
+    }
+
+    @Nullable
+    public BlockPos findNearest(ServerLevel level, Type type, BlockPos origin, int rangeXZ, int rangeY) {
+        List<BlockPos> found = findAll(level, type, origin, rangeXZ, rangeY);
+        return found.isEmpty() ? null : found.get(0);
+    }
+}
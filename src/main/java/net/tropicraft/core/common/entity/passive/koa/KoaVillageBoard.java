@@ -0,0 +1,132 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.entity.passive.EntityKoaBase;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What the Koa sharing a home chest know about their village: where the fireplace and drums are,
+ * which village they belong to, and the {@link KoaPartyConductor} keeping their beat.
+ * <p>
+ * Koa subscribe to the board for their home and read and share through it, instead of each of them
+ * polling every Koa around. A board goes away once its last Koa unsubscribes.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class KoaVillageBoard {
+    private static final Map<ResourceKey<Level>, Long2ObjectMap<KoaVillageBoard>> BOARDS = new HashMap<>();
+
+    private final ResourceKey<Level> dimension;
+    private final BlockPos home;
+    private final IntSet members = new IntOpenHashSet();
+
+    @Nullable
+    private BlockPos fireplace;
+    private final List<BlockPos> drums = new ArrayList<>();
+
+    private int villageID = -1;
+    @Nullable
+    private ResourceKey<Level> villageDimension;
+
+    private final KoaPartyConductor conductor = new KoaPartyConductor();
+
+    private KoaVillageBoard(ResourceKey<Level> dimension, BlockPos home) {
+        this.dimension = dimension;
+        this.home = home;
+    }
+
+    public static KoaVillageBoard subscribe(ServerLevel level, BlockPos home, EntityKoaBase koa) {
+        KoaVillageBoard board = BOARDS.computeIfAbsent(level.dimension(), k -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(home.asLong(), k -> new KoaVillageBoard(level.dimension(), home.immutable()));
+        board.members.add(koa.getId());
+        return board;
+    }
+
+    public void unsubscribe(EntityKoaBase koa) {
+        if (members.remove(koa.getId()) && members.isEmpty()) {
+            Long2ObjectMap<KoaVillageBoard> boards = BOARDS.get(dimension);
+            if (boards != null && boards.get(home.asLong()) == this) {
+                boards.remove(home.asLong());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            BOARDS.remove(level.dimension());
+        }
+    }
+
+    public BlockPos getHome() {
+        return home;
+    }
+
+    public int getMemberCount() {
+        return members.size();
+    }
+
+    @Nullable
+    public BlockPos getFireplace() {
+        return fireplace;
+    }
+
+    public void shareFireplace(@Nullable BlockPos fireplace) {
+        this.fireplace = fireplace != null ? fireplace.immutable() : null;
+    }
+
+    public List<BlockPos> getDrums() {
+        return Collections.unmodifiableList(drums);
+    }
+
+    public void shareDrums(List<BlockPos> found) {
+        for (BlockPos pos : found) {
+            if (drums.size() >= EntityKoaBase.MAX_DRUMS) {
+                return;
+            }
+            if (!drums.contains(pos)) {
+                drums.add(pos.immutable());
+            }
+        }
+    }
+
+    public void forgetDrum(BlockPos pos) {
+        drums.remove(pos);
+    }
+
+    public int getVillageID() {
+        return villageID;
+    }
+
+    @Nullable
+    public ResourceKey<Level> getVillageDimension() {
+        return villageDimension;
+    }
+
+    public void shareVillage(int villageID, ResourceKey<Level> villageDimension) {
+        if (this.villageID == -1) {
+            this.villageID = villageID;
+            this.villageDimension = villageDimension;
+        }
+    }
+
+    public KoaPartyConductor getConductor() {
+        return conductor;
+    }
+}
@@ -0,0 +1,132 @@
+package net.tropicraft.core.common.entity.passive.koa;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.TropicsConfigs;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Spreads the periodic searches Koa run, like looking for their home chest or for water to fish in,
+ * over several ticks. Work is queued as it comes due and run at the end of the world tick, first come
+ * first served, until the tick's budget of {@link TropicsConfigs#koaWorkBudgetMicros} or
+ * {@link TropicsConfigs#koaWorkMaxJobsPerTick} jobs is spent. Whatever is left waits for the next tick.
+ * <p>
+ * At least one job runs every tick, so the queue always drains. An entity can only have one job of
+ * each kind queued at a time, and jobs whose entity has been removed are dropped.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class KoaWorkScheduler {
+    public enum Kind {
+        VILLAGE_SCAN,
+        FIND_WATER,
+        POPULATION_CHECK
+    }
+
+    private static final Map<ResourceKey<Level>, KoaWorkScheduler> SCHEDULERS = new HashMap<>();
+
+    private final ArrayDeque<Job> queue = new ArrayDeque<>();
+    private final LongSet queued = new LongOpenHashSet();
+
+    private long executed;
+    private long deferred;
+    private int maxDepth;
+
+    private record Job(long key, Entity owner, Runnable work) {
+    }
+
+    public static KoaWorkScheduler get(ServerLevel level) {
+        return SCHEDULERS.computeIfAbsent(level.dimension(), k -> new KoaWorkScheduler());
+    }
+
+    /**
+     * Queues work on behalf of an entity, unless it already has work of the same kind queued.
+     *
+     * @return True if the work was queued
+     */
+    public boolean schedule(Entity owner, Kind kind, Runnable work) {
+        long key = (long) owner.getId() << 8 | kind.ordinal();
+        if (!queued.add(key)) {
+            return false;
+        }
+        queue.addLast(new Job(key, owner, work));
+        maxDepth = Math.max(maxDepth, queue.size());
+        return true;
+    }
+
+    public boolean isScheduled(Entity owner, Kind kind) {
+        return queued.contains((long) owner.getId() << 8 | kind.ordinal());
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.END && event.world instanceof ServerLevel level) {
+            KoaWorkScheduler scheduler = SCHEDULERS.get(level.dimension());
+            if (scheduler != null) {
+                scheduler.run();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        if (event.getWorld() instanceof ServerLevel level) {
+            SCHEDULERS.remove(level.dimension());
+        }
+    }
+
+    private void run() {
+        if (queue.isEmpty()) {
+            return;
+        }
+
+        long deadline = System.nanoTime() + TropicsConfigs.koaWorkBudgetMicros * 1000L;
+        int jobs = 0;
+        while (!queue.isEmpty()) {
+            if (jobs > 0 && (jobs >= TropicsConfigs.koaWorkMaxJobsPerTick || System.nanoTime() >= deadline)) {
+                deferred += queue.size();
+                return;
+            }
+
+            Job job = queue.pollFirst();
+            queued.remove(job.key());
+            if (job.owner().isRemoved()) {
+                continue;
+            }
+
+            job.work().run();
+            executed++;
+            jobs++;
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getMaxQueueDepth() {
+        return maxDepth;
+    }
+
+    public long getExecutedCount() {
+        return executed;
+    }
+
+    /**
+     * @return How many times a queued job had to wait for a later tick, summed over every tick
+     */
+    public long getDeferredCount() {
+        return deferred;
+    }
+}
@@ -8,6 +8,7 @@ import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.animal.WaterAnimal;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.AABB;
+import net.tropicraft.core.common.entity.EntitySpatialHash;
 import net.tropicraft.core.common.entity.egg.EggEntity;
 
 public abstract class EchinodermEntity extends WaterAnimal {
@@ -114,7 +115,7 @@ public abstract class EchinodermEntity extends WaterAnimal {
         double closestSqDist = -1f;
 
         AABB aabb = getBoundingBox().inflate(NEIGHBORHOOD_SIZE, NEIGHBORHOOD_SIZE, NEIGHBORHOOD_SIZE);
-        for (Object obj : level.getEntitiesOfClass(getClass(), aabb)) {
+        for (Object obj : EntitySpatialHash.getEntities(level, getClass(), aabb)) {
             // don't masturbate
             if (obj == this) {
                 continue;
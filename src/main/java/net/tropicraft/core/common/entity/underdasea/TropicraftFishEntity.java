@@ -1,15 +1,18 @@
 package net.tropicraft.core.common.entity.underdasea;
 
-import net.minecraft.core.BlockPos;
 import net.minecraft.util.Mth;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
 import net.minecraft.world.entity.animal.WaterAnimal;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.Vec2;
 import net.minecraft.world.phys.Vec3;
+import net.tropicraft.core.common.entity.ai.fishies.FishSchooling;
+import net.tropicraft.core.common.entity.ai.fishies.WaterVolume;
+import net.tropicraft.core.common.entity.ai.flock.Flock;
+
+import javax.annotation.Nullable;
 
 public abstract class TropicraftFishEntity extends WaterAnimal {
 
@@ -55,6 +58,9 @@ public abstract class TropicraftFishEntity extends WaterAnimal {
 
     private boolean fishable = false;
 
+    @Nullable
+    private Flock<TropicraftFishEntity> school;
+
     protected TropicraftFishEntity(final EntityType<? extends WaterAnimal> type, final Level world) {
         super(type, world);
     }
@@ -107,6 +113,14 @@ public abstract class TropicraftFishEntity extends WaterAnimal {
         }
 
         // Server Side
+        if (!level.isClientSide) {
+            if (school != null && !isInWater()) {
+                school.remove(this);
+            } else if (school == null && isInWater() && (tickCount + getId()) % 40 == 0) {
+                FishSchooling.tryJoin(this);
+            }
+        }
+
         if (isInWater()) {
             if (isMovingAwayFromWall) {
                 swimSpeedTurn *= 1.8f;
@@ -260,12 +274,8 @@ public abstract class TropicraftFishEntity extends WaterAnimal {
             return false;
         }
 
-        if (waterChecks) {
-            BlockPos bp = new BlockPos((int) posX, (int) posY, (int) posZ);
-            BlockState stateAtPos = level.getBlockState(bp);
-            if (!stateAtPos.getMaterial().isLiquid() || stateAtPos.getMaterial().isSolid()) {
-                return false;
-            }
+        if (waterChecks && !WaterVolume.checkLiquid(level, (int) posX, (int) posY, (int) posZ)) {
+            return false;
         }
 
 
@@ -280,6 +290,33 @@ public abstract class TropicraftFishEntity extends WaterAnimal {
     }
 
 
+    /**
+     * Heads in the given direction, without checking what is there.
+     */
+    public void steerTowards(Vec3 direction) {
+        if (isNoAi() || direction.lengthSqr() < 1.0E-6) {
+            return;
+        }
+
+        float yaw = (float) ((Math.atan2(direction.z, direction.x) * 180D) / Math.PI) - 90f;
+        float pitch = (float) (-((Math.atan2(direction.y, Math.sqrt(direction.x * direction.x + direction.z * direction.z)) * 180D) / Math.PI));
+        targetVector = position().add(direction);
+        targetVectorHeading = new Vec2(yaw, pitch);
+    }
+
+    @Nullable
+    public Flock<TropicraftFishEntity> getSchool() {
+        return school;
+    }
+
+    public void setSchool(@Nullable Flock<TropicraftFishEntity> school) {
+        this.school = school;
+    }
+
+    public boolean isSchooling() {
+        return school != null;
+    }
+
     public Vec3 getHeading() {
         return new Vec3(Math.sin(this.swimYaw * (Math.PI / 180.0)), Math.sin(this.swimPitch * (Math.PI / 180.0)), Math.cos(this.swimYaw * (Math.PI / 180.0))).normalize();
     }
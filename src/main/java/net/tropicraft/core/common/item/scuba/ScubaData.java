@@ -12,7 +12,6 @@ import net.minecraft.tags.FluidTags;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.player.Player;
-import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.phys.Vec3;
@@ -30,6 +29,7 @@ import net.minecraftforge.event.entity.player.PlayerEvent.PlayerChangedDimension
 import net.minecraftforge.event.entity.player.PlayerEvent.PlayerLoggedInEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent.PlayerRespawnEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
 import net.minecraftforge.network.PacketDistributor;
@@ -40,9 +40,6 @@ import net.tropicraft.core.common.network.message.MessageUpdateScubaData;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.util.Collections;
-import java.util.Set;
-import java.util.WeakHashMap;
 
 @EventBusSubscriber(modid = Constants.MODID, bus = Bus.FORGE)
 public class ScubaData implements INBTSerializable<CompoundTag> {
@@ -99,41 +96,14 @@ public class ScubaData implements INBTSerializable<CompoundTag> {
         }
     }
     
-    private static final Set<ServerPlayer> underwaterPlayers = Collections.newSetFromMap(new WeakHashMap<>());
-    
     @SubscribeEvent
     public static void onPlayerTick(PlayerTickEvent event) {
-        Level world = event.player.level;
-        if (event.phase == Phase.END) {
+        // Divers on the server are ticked by ScubaDivers, the client only keeps its own dive going for the HUD
+        if (event.phase == Phase.END && event.side == LogicalSide.CLIENT && event.player.isLocalPlayer()) {
             // TODO support more than chest slot?
             ItemStack chestStack = event.player.getItemBySlot(EquipmentSlot.CHEST);
-            Item chestItem = chestStack.getItem();
-            if (chestItem instanceof ScubaArmorItem) {
-                LazyOptional<ScubaData> data = event.player.getCapability(CAPABILITY);
-                if (!world.isClientSide) {
-                    underwaterPlayers.add((ServerPlayer) event.player);
-                }
-                if (isUnderWater(event.player)) {
-                    data.ifPresent(d -> {
-                        d.tick(event.player);
-                        if (!world.isClientSide) {
-                            d.updateClient((ServerPlayer) event.player, false);
-                        }
-                    });
-                    ((ScubaArmorItem)chestItem).tickAir(event.player, EquipmentSlot.CHEST, chestStack);
-                    if (!world.isClientSide && world.getGameTime() % 60 == 0) {
-                        // TODO this effect could be better, custom packet?
-                        Vec3 eyePos = event.player.getEyePosition(0);
-                        Vec3 motion = event.player.getDeltaMovement();
-                        Vec3 particlePos = eyePos.add(motion.reverse());
-                        ((ServerLevel) world).sendParticles(ParticleTypes.BUBBLE,
-                                particlePos.x(), particlePos.y(), particlePos.z(),
-                                4 + world.random.nextInt(3),
-                                0.25, 0.25, 0.25, motion.length());
-                    }
-                } else if (!world.isClientSide && underwaterPlayers.remove(event.player)) { // Update client state as they leave the water
-                    data.ifPresent(d -> d.updateClient((ServerPlayer) event.player, false));
-                }
+            if (chestStack.getItem() instanceof ScubaArmorItem armor && isUnderWater(event.player)) {
+                event.player.getCapability(CAPABILITY).ifPresent(d -> d.tickDive(event.player, chestStack, armor));
             }
         }
     }
@@ -168,13 +138,29 @@ public class ScubaData implements INBTSerializable<CompoundTag> {
         }
     }
 
+    // How much the max depth has to grow to be sent straight away, rather than waiting for the next heartbeat
+    private static final double MAX_DEPTH_STEP = 0.1; // The HUD shows a tenth of a metre
+
+    private static final int MIN_SYNC_INTERVAL = 10;
+    private static final int HEARTBEAT_INTERVAL = 20 * 30;
+
     private long diveTime;
     private double maxDepth;
     
     private boolean dirty;
+
+    // What the client was last sent, on the server
+    private long lastSyncTime = -HEARTBEAT_INTERVAL;
+    private long syncedDiveTime;
+    private double syncedMaxDepth;
     
     public static boolean isUnderWater(Player player) {
-        BlockPos headPos = new BlockPos(player.getEyePosition(0));
+        return isUnderWater(player, new BlockPos.MutableBlockPos());
+    }
+
+    static boolean isUnderWater(Player player, BlockPos.MutableBlockPos headPos) {
+        // Same as the block at getEyePosition(0), without making a vector for it
+        headPos.set(player.xo, player.yo + player.getEyeHeight(), player.zo);
         return player.level.getFluidState(headPos).is(FluidTags.WATER);
     }
     
@@ -187,12 +173,40 @@ public class ScubaData implements INBTSerializable<CompoundTag> {
         return 0;
     }
     
+    /**
+     * Ticks a player that is under water in scuba gear.
+     */
+    void tickDive(Player player, ItemStack chestStack, ScubaArmorItem armor) {
+        Level world = player.level;
+        tick(player);
+        armor.tickAir(player, EquipmentSlot.CHEST, chestStack);
+        if (!world.isClientSide && world.getGameTime() % 60 == 0) {
+            // TODO this effect could be better, custom packet?
+            Vec3 eyePos = player.getEyePosition(0);
+            Vec3 motion = player.getDeltaMovement();
+            Vec3 particlePos = eyePos.add(motion.reverse());
+            ((ServerLevel) world).sendParticles(ParticleTypes.BUBBLE,
+                    particlePos.x(), particlePos.y(), particlePos.z(),
+                    4 + world.random.nextInt(3),
+                    0.25, 0.25, 0.25, motion.length());
+        }
+    }
+
     void tick(Player player) {
         this.diveTime++;
-        if (player.level.getGameTime() % 100 == 0) {
+        // Only ticked under water, so no need to check again for the depth
+        double depth = TropicraftDimension.getSeaLevel(player.level) - (player.yo + player.getEyeHeight());
+        updateMaxDepth(depth);
+        if (maxDepth - syncedMaxDepth >= MAX_DEPTH_STEP) {
             dirty = true;
         }
-        updateMaxDepth(getDepth(player));
+    }
+
+    /**
+     * Called on the server when the player comes out of the water, so the client gets their final dive.
+     */
+    void onLeaveWater() {
+        dirty = true;
     }
 
     public long getDiveTime() {
@@ -209,10 +223,26 @@ public class ScubaData implements INBTSerializable<CompoundTag> {
         return maxDepth;
     }
     
+    /**
+     * Sends the player their dive time and max depth if the max depth grew or they left the water, no more often than every
+     * {@link #MIN_SYNC_INTERVAL} ticks, or if it's been a while since they were last sent it.
+     */
     void updateClient(ServerPlayer target, boolean force) {
-        if (dirty || force) {
-            TropicraftPackets.INSTANCE.send(PacketDistributor.PLAYER.with(() -> target), new MessageUpdateScubaData(this));
+        long time = target.level.getGameTime();
+        if (!force) {
+            long sinceSync = time - lastSyncTime;
+            // Dive time is counted on the client as well, so it only needs correcting now and then
+            boolean heartbeat = sinceSync >= HEARTBEAT_INTERVAL && diveTime != syncedDiveTime;
+            if (sinceSync < MIN_SYNC_INTERVAL || !dirty && !heartbeat) {
+                return;
+            }
         }
+
+        TropicraftPackets.INSTANCE.send(PacketDistributor.PLAYER.with(() -> target), new MessageUpdateScubaData(this));
+        dirty = false;
+        lastSyncTime = time;
+        syncedDiveTime = diveTime;
+        syncedMaxDepth = maxDepth;
     }
 
     public void copyFrom(ScubaData data) {
@@ -0,0 +1,104 @@
+package net.tropicraft.core.common.item.scuba;
+
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.event.TickEvent.Phase;
+import net.minecraftforge.event.TickEvent.ServerTickEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.event.entity.living.LivingEquipmentChangeEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
+import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
+import net.tropicraft.Constants;
+
+/**
+ * The players on the server wearing scuba gear, who are the only ones that need their dive ticked. Players
+ * are added and removed as they put on or take off a {@link ScubaArmorItem}, and when they enter or leave a
+ * level, so nobody else is looked at every tick.
+ */
+@EventBusSubscriber(modid = Constants.MODID, bus = Bus.FORGE)
+public final class ScubaDivers {
+    private static final EquipmentSlot SLOT = EquipmentSlot.CHEST;
+
+    private static final Reference2ObjectMap<ServerPlayer, Diver> DIVERS = new Reference2ObjectOpenHashMap<>();
+
+    private ScubaDivers() {
+    }
+
+    private static final class Diver {
+        private final ServerPlayer player;
+        private final ScubaData data;
+        private final BlockPos.MutableBlockPos eyePos = new BlockPos.MutableBlockPos();
+        private boolean underwater;
+
+        private Diver(ServerPlayer player, ScubaData data) {
+            this.player = player;
+            this.data = data;
+        }
+
+        private void tick() {
+            ItemStack chestStack = player.getItemBySlot(SLOT);
+            if (!(chestStack.getItem() instanceof ScubaArmorItem armor)) {
+                return;
+            }
+
+            boolean wasUnderwater = underwater;
+            underwater = ScubaData.isUnderWater(player, eyePos);
+            if (underwater) {
+                data.tickDive(player, chestStack, armor);
+            } else if (wasUnderwater) {
+                // Update client state as they leave the water
+                data.onLeaveWater();
+            }
+            data.updateClient(player, false);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent event) {
+        if (event.phase == Phase.END) {
+            for (Diver diver : DIVERS.values()) {
+                diver.tick();
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEquipmentChange(LivingEquipmentChangeEvent event) {
+        if (event.getSlot() == SLOT && event.getEntityLiving() instanceof ServerPlayer player) {
+            update(player, event.getTo());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoin(EntityJoinWorldEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            update(player, player.getItemBySlot(SLOT));
+        }
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeave(EntityLeaveWorldEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            DIVERS.remove(player);
+        }
+    }
+
+    private static void update(ServerPlayer player, ItemStack chestStack) {
+        if (chestStack.getItem() instanceof ScubaArmorItem) {
+            if (!DIVERS.containsKey(player)) {
+                player.getCapability(ScubaData.CAPABILITY).ifPresent(data -> DIVERS.put(player, new Diver(player, data)));
+            }
+        } else {
+            Diver diver = DIVERS.remove(player);
+            if (diver != null && diver.underwater) {
+                diver.data.updateClient(player, true);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package net.tropicraft.core.common.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.network.ICustomPacket;
+import net.minecraftforge.network.NetworkDirection;
+import net.minecraftforge.network.PacketDistributor;
+import net.tropicraft.Constants;
+import net.tropicraft.core.common.block.tileentity.ISyncedMachine;
+import net.tropicraft.core.common.network.message.MessageMachineStates;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends changes to {@link ISyncedMachine}s to the players tracking the chunk they are in, rather than
+ * everyone in the dimension. Machines are marked as changed and synced at the end of the server tick, so a
+ * machine that changes several times in a tick is only sent once, and all the machines changed in a chunk
+ * go out together in one {@link MessageMachineStates}. Only the slots and fields that differ from what was
+ * last sent are included.
+ */
+@Mod.EventBusSubscriber(modid = Constants.MODID)
+public final class BlockEntitySync {
+    private static final Set<BlockEntity> CHANGED = new LinkedHashSet<>();
+
+    private static final Object2LongMap<Class<?>> MESSAGES_SENT = new Object2LongOpenHashMap<>();
+    private static final Object2LongMap<Class<?>> BYTES_SENT = new Object2LongOpenHashMap<>();
+    private static long coalesced;
+    private static long machinesSynced;
+
+    private BlockEntitySync() {
+    }
+
+    /**
+     * Syncs the machine to the players tracking it at the end of the tick.
+     */
+    public static <T extends BlockEntity & ISyncedMachine> void markChanged(T machine) {
+        if (!(machine.getLevel() instanceof ServerLevel)) {
+            return;
+        }
+        if (!CHANGED.add(machine)) {
+            coalesced++;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        if (event.phase != TickEvent.Phase.END || CHANGED.isEmpty()) {
+            return;
+        }
+
+        Map<ServerLevel, Long2ObjectMap<List<MessageMachineStates.Entry>>> changesByChunk = new HashMap<>();
+        for (BlockEntity entity : CHANGED) {
+            if (entity.isRemoved() || !(entity.getLevel() instanceof ServerLevel level)) {
+                continue;
+            }
+
+            // Always diff, so what was last sent keeps up with the machine even while nobody is watching
+            MessageMachineStates.Entry entry = ((ISyncedMachine) entity).getSyncState().diff((ISyncedMachine) entity, entity.getBlockPos());
+
+            // Nobody to send it to, and anyone who starts tracking the chunk gets the whole machine with it
+            ChunkPos chunkPos = new ChunkPos(entity.getBlockPos());
+            if (entry != null && !level.getChunkSource().chunkMap.getPlayers(chunkPos, false).isEmpty()) {
+                changesByChunk.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>())
+                        .computeIfAbsent(chunkPos.toLong(), c -> new ArrayList<>())
+                        .add(entry);
+            }
+        }
+        CHANGED.clear();
+
+        changesByChunk.forEach((level, chunks) -> {
+            for (Long2ObjectMap.Entry<List<MessageMachineStates.Entry>> chunk : chunks.long2ObjectEntrySet()) {
+                ChunkPos chunkPos = new ChunkPos(chunk.getLongKey());
+                send(level, chunkPos, new MessageMachineStates(chunkPos, chunk.getValue()));
+                machinesSynced += chunk.getValue().size();
+            }
+        });
+    }
+
+    private static void send(ServerLevel level, ChunkPos chunkPos, TropicraftMessage message) {
+        Packet<?> packet = TropicraftPackets.INSTANCE.toVanillaPacket(message, NetworkDirection.PLAY_TO_CLIENT);
+        if (packet instanceof ICustomPacket<?> custom && custom.getInternalData() != null) {
+            BYTES_SENT.mergeLong(message.getClass(), custom.getInternalData().readableBytes(), Long::sum);
+        }
+        MESSAGES_SENT.mergeLong(message.getClass(), 1, Long::sum);
+
+        PacketDistributor.TRACKING_CHUNK.with(() -> level.getChunk(chunkPos.x, chunkPos.z)).send(packet);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        CHANGED.clear();
+    }
+
+    /**
+     * @return One line per message type with how many were sent and how big they were
+     */
+    public static List<String> describeMetrics() {
+        List<String> lines = new ArrayList<>();
+        lines.add(machinesSynced + " machines synced, " + coalesced + " repeat changes coalesced");
+        for (Object2LongMap.Entry<Class<?>> entry : MESSAGES_SENT.object2LongEntrySet()) {
+            Class<?> type = entry.getKey();
+            lines.add(type.getSimpleName() + ": " + entry.getLongValue() + " sent, " + BYTES_SENT.getLong(type) + " bytes");
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,93 @@
+package net.tropicraft.core.common.network;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.item.ItemStack;
+import net.tropicraft.core.common.block.tileentity.ISyncedMachine;
+import net.tropicraft.core.common.network.message.MessageMachineStates;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * The slots and fields of a {@link ISyncedMachine} as they were last sent to clients, to work out which of
+ * them need sending next time. Clients get the whole machine with the chunk, so only the players already
+ * tracking it ever need the changes.
+ */
+public final class MachineSyncState {
+    private final ItemStack[] slots;
+    private final int[] fields;
+    private final int clientTickedFields;
+
+    /**
+     * @param clientTickedFields A mask of the fields that clients advance themselves, such as progress. What
+     *                           a client has for these can't be known from what was last sent, so they are
+     *                           sent along whenever any other field changes.
+     */
+    public MachineSyncState(int slotCount, int fieldCount, int clientTickedFields) {
+        if (slotCount > Integer.SIZE || fieldCount > Integer.SIZE) {
+            throw new IllegalArgumentException("Machines can sync at most " + Integer.SIZE + " slots and fields");
+        }
+        slots = new ItemStack[slotCount];
+        Arrays.fill(slots, ItemStack.EMPTY);
+        fields = new int[fieldCount];
+        this.clientTickedFields = clientTickedFields;
+    }
+
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    /**
+     * Compares the machine against what was last sent, and takes its current state as sent.
+     *
+     * @return The slots and fields that changed, or null if nothing did
+     */
+    @Nullable
+    MessageMachineStates.Entry diff(ISyncedMachine machine, BlockPos pos) {
+        int slotMask = 0;
+        int changedSlots = 0;
+        for (int i = 0; i < slots.length; i++) {
+            ItemStack stack = machine.getSyncedSlot(i);
+            if (!ItemStack.matches(slots[i], stack)) {
+                slots[i] = stack.copy();
+                slotMask |= 1 << i;
+                changedSlots++;
+            }
+        }
+
+        int fieldMask = 0;
+        for (int i = 0; i < fields.length; i++) {
+            int value = machine.getSyncedField(i);
+            if (fields[i] != value) {
+                fields[i] = value;
+                fieldMask |= 1 << i;
+            }
+        }
+        if ((fieldMask & ~clientTickedFields) != 0) {
+            fieldMask |= clientTickedFields;
+        }
+        int changedFields = Integer.bitCount(fieldMask);
+
+        if (slotMask == 0 && fieldMask == 0) {
+            return null;
+        }
+
+        ItemStack[] changedStacks = new ItemStack[changedSlots];
+        for (int i = 0, j = 0; i < slots.length; i++) {
+            if ((slotMask & 1 << i) != 0) {
+                changedStacks[j++] = slots[i];
+            }
+        }
+        int[] changedValues = new int[changedFields];
+        for (int i = 0, j = 0; i < fields.length; i++) {
+            if ((fieldMask & 1 << i) != 0) {
+                changedValues[j++] = fields[i];
+            }
+        }
+        return new MessageMachineStates.Entry(pos, slotMask, changedStacks, fieldMask, changedValues);
+    }
+}
@@ -0,0 +1,135 @@
+package net.tropicraft.core.common.network.message;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraftforge.network.NetworkEvent;
+import net.tropicraft.core.common.block.tileentity.ISyncedMachine;
+import net.tropicraft.core.common.network.TropicraftMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The changes to all the machines in one chunk over a tick. Each machine is sent as its position within
+ * the chunk, then a mask of the slots that changed followed by their stacks, then a mask of the fields
+ * that changed followed by their values.
+ */
+public class MessageMachineStates implements TropicraftMessage {
+
+	public record Entry(BlockPos pos, int slotMask, ItemStack[] slots, int fieldMask, int[] fields) {
+	}
+
+	private final ChunkPos chunkPos;
+	private final List<Entry> entries;
+
+	public MessageMachineStates(ChunkPos chunkPos, List<Entry> entries) {
+		this.chunkPos = chunkPos;
+		this.entries = entries;
+	}
+
+	public static void encode(final MessageMachineStates message, final FriendlyByteBuf buf) {
+		buf.writeVarInt(message.chunkPos.x);
+		buf.writeVarInt(message.chunkPos.z);
+		buf.writeVarInt(message.entries.size());
+		for (Entry entry : message.entries) {
+			buf.writeVarInt(packPos(entry.pos()));
+
+			buf.writeVarInt(entry.slotMask());
+			for (ItemStack stack : entry.slots()) {
+				buf.writeItem(stack);
+			}
+
+			buf.writeVarInt(entry.fieldMask());
+			for (int value : entry.fields()) {
+				buf.writeVarInt(value);
+			}
+		}
+	}
+
+	public static MessageMachineStates decode(final FriendlyByteBuf buf) {
+		ChunkPos chunkPos = new ChunkPos(buf.readVarInt(), buf.readVarInt());
+		int count = buf.readVarInt();
+		List<Entry> entries = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			BlockPos pos = unpackPos(chunkPos, buf.readVarInt());
+
+			int slotMask = buf.readVarInt();
+			ItemStack[] slots = new ItemStack[Integer.bitCount(slotMask)];
+			for (int j = 0; j < slots.length; j++) {
+				slots[j] = buf.readItem();
+			}
+
+			int fieldMask = buf.readVarInt();
+			int[] fields = new int[Integer.bitCount(fieldMask)];
+			for (int j = 0; j < fields.length; j++) {
+				fields[j] = buf.readVarInt();
+			}
+
+			entries.add(new Entry(pos, slotMask, slots, fieldMask, fields));
+		}
+		return new MessageMachineStates(chunkPos, entries);
+	}
+
+	public static void handle(final MessageMachineStates message, Supplier<NetworkEvent.Context> ctx) {
+		ctx.get().enqueueWork(() -> {
+			Level level = Minecraft.getInstance().level;
+			if (level == null) {
+				return;
+			}
+			// Every entry is in the same chunk, so look it up once. Never load it, so malicious packets can't either
+			LevelChunk chunk = level.getChunkSource().getChunkNow(message.chunkPos.x, message.chunkPos.z);
+			if (chunk == null) {
+				return;
+			}
+			for (Entry entry : message.entries) {
+				if (chunk.getBlockEntity(entry.pos()) instanceof ISyncedMachine machine) {
+					apply(machine, entry);
+				}
+			}
+		});
+		ctx.get().setPacketHandled(true);
+	}
+
+	private static void apply(ISyncedMachine machine, Entry entry) {
+		int slotCount = machine.getSyncState().getSlotCount();
+		for (int slot = 0, i = 0; slot < slotCount; slot++) {
+			if ((entry.slotMask() & 1 << slot) != 0) {
+				machine.setSyncedSlot(slot, entry.slots()[i++]);
+			}
+		}
+
+		int fieldCount = machine.getSyncState().getFieldCount();
+		for (int field = 0, i = 0; field < fieldCount; field++) {
+			if ((entry.fieldMask() & 1 << field) != 0) {
+				machine.setSyncedField(field, entry.fields()[i++]);
+			}
+		}
+	}
+
+	/**
+	 * Packs the position within its chunk section into the low 12 bits, and the section with zigzag
+	 * encoding above that, so machines anywhere near the surface fit in a two or three byte varint.
+	 */
+	private static int packPos(BlockPos pos) {
+		int sectionY = SectionPos.blockToSectionCoord(pos.getY());
+		int local = (pos.getY() & 15) << 8 | (pos.getZ() & 15) << 4 | (pos.getX() & 15);
+		return (sectionY << 1 ^ sectionY >> 31) << 12 | local;
+	}
+
+	private static BlockPos unpackPos(ChunkPos chunkPos, int packed) {
+		int zigzag = packed >>> 12;
+		int sectionY = zigzag >>> 1 ^ -(zigzag & 1);
+		return new BlockPos(
+				chunkPos.getMinBlockX() + (packed & 15),
+				SectionPos.sectionToBlockCoord(sectionY) + (packed >> 8 & 15),
+				chunkPos.getMinBlockZ() + (packed >> 4 & 15)
+		);
+	}
+}